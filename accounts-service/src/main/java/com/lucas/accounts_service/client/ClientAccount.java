@@ -1,16 +1,27 @@
 package com.lucas.accounts_service.client;
 
 import com.lucas.accounts_service.model.dtos.ClientResponse;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.lang.module.ResolutionException;
+import java.util.List;
+import java.util.Set;
 
-@FeignClient(name = "customers-service", url = "http://customers-service:8082")
+@FeignClient(name = "customers-service", url = "${feign.client.customers-service.url}")
 public interface ClientAccount {
 
+    // Raw response, so a 304 reaches ClientLookup instead of being turned into an error.
     @GetMapping("/api/clientes/{id}")
-    ClientResponse getClientById(@PathVariable("id") Long id);
-}
+    Response getClientById(@PathVariable("id") Long id,
+                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
 
+    @PostMapping("/api/clientes/batch")
+    List<ClientResponse> getClientsByIds(@RequestBody Set<Long> ids);
+}
@@ -0,0 +1,19 @@
+package com.lucas.accounts_service.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.clients")
+public class ClientCacheProperties {
+
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // How long a client may still be served after customers-service stops answering.
+    private Duration staleTtl = Duration.ofMinutes(10);
+}
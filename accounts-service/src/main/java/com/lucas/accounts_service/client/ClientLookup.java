@@ -0,0 +1,184 @@
+package com.lucas.accounts_service.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lucas.accounts_service.model.dtos.ClientResponse;
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache in front of {@link ClientAccount}. Entries expire after
+ * {@code cache.clients.ttl} and can be evicted explicitly when customers-service reports a change.
+ * Remote calls go through the {@code customers-service} bulkhead, circuit breaker and retry; when they
+ * fail, the last response seen within {@code cache.clients.stale-ttl} is served instead. That response
+ * also keeps its ETag, so an expired client is revalidated and only downloaded again if it changed.
+ */
+@Slf4j
+@Component
+@Observed(name = "service.method")
+public class ClientLookup implements MeterBinder {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String CUSTOMERS_SERVICE = "customers-service";
+
+    private final ClientAccount clientAccount;
+    private final Cache<Long, ClientResponse> clients;
+    private final Cache<Long, KnownClient> lastKnown;
+    private final ObjectMapper objectMapper;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+
+    public ClientLookup(ClientAccount clientAccount, ClientCacheProperties properties, ObjectMapper objectMapper,
+                        BulkheadRegistry bulkheadRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+                        RetryRegistry retryRegistry) {
+        this.clientAccount = clientAccount;
+        this.objectMapper = objectMapper;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getStaleTtl())
+                .recordStats()
+                .build();
+        this.bulkhead = bulkheadRegistry.bulkhead(CUSTOMERS_SERVICE);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CUSTOMERS_SERVICE);
+        this.retry = retryRegistry.retry(CUSTOMERS_SERVICE);
+    }
+
+    public ClientResponse getClientById(Long id) {
+        return clients.get(id, this::loadClient);
+    }
+
+    public Map<Long, ClientResponse> getClientsByIds(Set<Long> ids) {
+        return clients.getAll(ids, this::loadClients);
+    }
+
+    public void evict(Long id) {
+        clients.invalidate(id);
+        lastKnown.invalidate(id);
+    }
+
+    public void evictAll() {
+        clients.invalidateAll();
+        lastKnown.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return clients.stats();
+    }
+
+    // Publishes cache_gets{result=hit|miss}, evictions and size so hit ratios show up next to the
+    // Feign client timers; a rising last-known hit count means stale fallbacks are being served.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, clients, "clients");
+        CaffeineCacheMetrics.monitor(registry, lastKnown, "clients.last-known");
+    }
+
+    private ClientResponse loadClient(Long id) {
+        KnownClient known = lastKnown.getIfPresent(id);
+        try {
+            KnownClient current = call(() -> fetchClient(id, known));
+            lastKnown.put(id, current);
+            return current.client();
+
+        } catch (FeignException.NotFound e) {
+            lastKnown.invalidate(id);
+            throw e;
+
+        } catch (RuntimeException e) {
+            if (known == null) {
+                throw e;
+            }
+            log.warn("Serving last known client {} because customers-service failed: {}", id, e.toString());
+            return known.client();
+        }
+    }
+
+    // Sends the ETag of the last response, if any; a 304 means that response is still current.
+    private KnownClient fetchClient(Long id, KnownClient known) {
+        try (Response response = clientAccount.getClientById(id, known == null ? null : known.etag())) {
+            if (known != null && response.status() == HttpStatus.NOT_MODIFIED.value()) {
+                return known;
+            }
+            if (response.status() < 200 || response.status() >= 300) {
+                throw FeignException.errorStatus("ClientAccount#getClientById(Long,String)", response);
+            }
+
+            ClientResponse client = objectMapper.readValue(response.body().asInputStream(), ClientResponse.class);
+            String etag = response.headers().getOrDefault(HttpHeaders.ETAG, List.of()).stream()
+                    .findFirst()
+                    .orElse(null);
+            return new KnownClient(client, etag);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read client " + id + " from customers-service", e);
+        }
+    }
+
+    private Map<Long, ClientResponse> loadClients(Set<? extends Long> ids) {
+        try {
+            Map<Long, ClientResponse> loaded = new HashMap<>();
+            List<Long> pending = new ArrayList<>(ids);
+
+            for (int from = 0; from < pending.size(); from += MAX_BATCH_SIZE) {
+                Set<Long> chunk = new HashSet<>(pending.subList(from, Math.min(from + MAX_BATCH_SIZE, pending.size())));
+                call(() -> clientAccount.getClientsByIds(chunk))
+                        .forEach(client -> loaded.put(client.getId(), client));
+            }
+
+            loaded.forEach((id, client) -> lastKnown.put(id, new KnownClient(client, null)));
+            return loaded;
+
+        } catch (RuntimeException e) {
+            Map<Long, ClientResponse> stale = new HashMap<>();
+            lastKnown.getAllPresent(ids).forEach((id, known) -> stale.put(id, known.client()));
+            if (stale.size() < ids.size()) {
+                throw e;
+            }
+            log.warn("Serving {} last known clients because customers-service failed: {}", stale.size(), e.toString());
+            return stale;
+        }
+    }
+
+    // Retry wraps the breaker so every attempt is counted, and the breaker wraps the bulkhead so
+    // rejected calls never reach the remote service.
+    private <T> T call(Supplier<T> remote) {
+        return Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker,
+                        Bulkhead.decorateSupplier(bulkhead, remote))).get();
+    }
+
+    private record KnownClient(ClientResponse client, String etag) {
+    }
+}
@@ -2,13 +2,17 @@ package com.lucas.accounts_service.controllers;
 
 import com.lucas.accounts_service.model.dtos.AccountRequest;
 import com.lucas.accounts_service.model.dtos.AccountResponse;
+import com.lucas.accounts_service.model.dtos.CursorPage;
 import com.lucas.accounts_service.services.AccountService;
+import com.lucas.accounts_service.services.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/cuentas")
@@ -24,15 +28,42 @@ public class AccountController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountResponse>> getAllAccount() {
-        List<AccountResponse> accounts = accountService.getAllAccount();
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<List<AccountResponse>> getAllAccount(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        CursorPage<AccountResponse> accounts = accountService.getAllAccount(cursor, size);
+        return withNextCursor(accounts);
     }
 
+    // A matching If-None-Match is answered with 304 after reading only the account's version.
     @GetMapping("/{id}")
-    public ResponseEntity<AccountResponse> getAccountById(@PathVariable Long id) {
+    public ResponseEntity<AccountResponse> getAccountById(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = accountService.findAccountETag(id).orElse(null);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+
         AccountResponse account = accountService.getAccountById(id);
-        return ResponseEntity.ok(account);
+        String etag = accountService.getAccountETag(account);
+        var response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(account);
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<AccountResponse>> getAccountsByIds(@RequestParam Set<Long> ids) {
+        List<AccountResponse> accounts = accountService.getAccountsByIds(ids);
+        return ResponseEntity.ok(accounts);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<AccountResponse>> searchAccountsByIds(@RequestBody Set<Long> ids) {
+        List<AccountResponse> accounts = accountService.getAccountsByIds(ids);
+        return ResponseEntity.ok(accounts);
     }
 
     @DeleteMapping("/{id}")
@@ -46,4 +77,12 @@ public class AccountController {
         accountService.updateAccount(id, accountRequest);
         return ResponseEntity.ok().build();
     }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(CursorPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
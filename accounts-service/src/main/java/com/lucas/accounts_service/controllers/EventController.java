@@ -0,0 +1,23 @@
+package com.lucas.accounts_service.controllers;
+
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
+import com.lucas.accounts_service.services.ClientEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/eventos")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final ClientEventService clientEventService;
+
+    @PostMapping
+    public ResponseEntity<Void> receiveEvents(@RequestBody List<ChangeEvent> events) {
+        clientEventService.apply(events);
+        return ResponseEntity.noContent().build();
+    }
+}
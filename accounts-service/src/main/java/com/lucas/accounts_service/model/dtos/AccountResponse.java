@@ -17,4 +17,6 @@ public class AccountResponse {
     private Boolean status;
 
     private ClientResponse clientResponse;
+
+    private Long version;
 }
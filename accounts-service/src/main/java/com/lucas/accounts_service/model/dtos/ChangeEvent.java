@@ -0,0 +1,33 @@
+package com.lucas.accounts_service.model.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change notification sent to other services. {@code sequence} is the outbox id, so it grows
+ * monotonically and consumers can discard events older than what they have already applied.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeEvent {
+
+    public static final String ACCOUNT = "ACCOUNT";
+    public static final String CLIENT = "CLIENT";
+
+    public static final String UPSERTED = "UPSERTED";
+    public static final String DELETED = "DELETED";
+
+    private Long sequence;
+    private String aggregateType;
+    private Long aggregateId;
+    private String type;
+    private JsonNode payload;
+    private LocalDateTime occurredAt;
+}
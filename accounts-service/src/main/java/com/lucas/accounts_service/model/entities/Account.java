@@ -24,4 +24,7 @@ public class Account {
     private Boolean status;
 
     private Long clientId;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,32 @@
+package com.lucas.accounts_service.model.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change recorded in the same transaction as the entity it describes. {@code publishedAt} stays null
+ * until the relay has delivered it to every destination; delivery to each one is tracked apart in
+ * {@code outbox_delivery}.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateType;
+    private Long aggregateId;
+    private String type;
+    @Column(columnDefinition = "text")
+    private String payload;
+    private LocalDateTime occurredAt;
+    private LocalDateTime publishedAt;
+}
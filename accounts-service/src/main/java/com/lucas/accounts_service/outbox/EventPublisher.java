@@ -0,0 +1,17 @@
+package com.lucas.accounts_service.outbox;
+
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
+
+import java.util.List;
+
+/**
+ * Transport used by {@link OutboxRelay}. Each destination keeps its own delivery state, and a batch
+ * counts as delivered to a destination only if {@link #publish} returns normally; otherwise it is
+ * retried, so consumers must tolerate duplicates.
+ */
+public interface EventPublisher {
+
+    List<String> destinations();
+
+    void publish(String destination, List<ChangeEvent> events);
+}
@@ -0,0 +1,42 @@
+package com.lucas.accounts_service.outbox;
+
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "outbox.transport", havingValue = "http", matchIfMissing = true)
+public class HttpEventPublisher implements EventPublisher {
+
+    private final RestClient restClient;
+    private final List<String> endpoints;
+
+    public HttpEventPublisher(RestClient.Builder restClientBuilder, OutboxProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getHttp().getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getHttp().getReadTimeout());
+
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.endpoints = List.copyOf(properties.getHttp().getEndpoints());
+    }
+
+    @Override
+    public List<String> destinations() {
+        return endpoints;
+    }
+
+    @Override
+    public void publish(String destination, List<ChangeEvent> events) {
+        restClient.post()
+                .uri(destination)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,46 @@
+package com.lucas.accounts_service.outbox;
+
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps published events in memory and hands them to in-process subscribers. Meant for tests and
+ * single-node setups where no other service needs the stream.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.transport", havingValue = "in-memory")
+public class InMemoryEventPublisher implements EventPublisher {
+
+    public static final String DESTINATION = "in-memory";
+
+    private final List<ChangeEvent> published = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<ChangeEvent>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public List<String> destinations() {
+        return List.of(DESTINATION);
+    }
+
+    @Override
+    public void publish(String destination, List<ChangeEvent> events) {
+        published.addAll(events);
+        subscribers.forEach(subscriber -> subscriber.accept(events));
+    }
+
+    public void subscribe(Consumer<List<ChangeEvent>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public List<ChangeEvent> getPublished() {
+        return List.copyOf(published);
+    }
+
+    public void clear() {
+        published.clear();
+    }
+}
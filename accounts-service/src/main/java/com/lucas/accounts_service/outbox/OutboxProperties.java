@@ -0,0 +1,33 @@
+package com.lucas.accounts_service.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    // "http" posts every batch to each endpoint; "in-memory" keeps events inside the process.
+    private String transport = "http";
+    private int batchSize = 100;
+    private Duration pollInterval = Duration.ofMillis(500);
+    // How long a relay owns the events it claimed for a destination. Must outlast a publish, or
+    // another relay may deliver the same batch again meanwhile.
+    private Duration claimTimeout = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofDays(7);
+    private Http http = new Http();
+
+    @Getter
+    @Setter
+    public static class Http {
+        private List<String> endpoints = new ArrayList<>();
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -1,7 +1,15 @@
 package com.lucas.accounts_service.repositories;
 
 import com.lucas.accounts_service.model.entities.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    List<Account> findByAccountNumberGreaterThanOrderByAccountNumberAsc(Long accountNumber, Limit limit);
+
+    Optional<AccountVersion> findVersionByAccountNumber(Long accountNumber);
 }
@@ -0,0 +1,11 @@
+package com.lucas.accounts_service.repositories;
+
+/**
+ * The columns an account's ETag depends on.
+ */
+public interface AccountVersion {
+
+    Long getVersion();
+
+    Long getClientId();
+}
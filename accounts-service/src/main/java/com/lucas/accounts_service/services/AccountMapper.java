@@ -0,0 +1,42 @@
+package com.lucas.accounts_service.services;
+
+import com.lucas.accounts_service.exeptions.ClientNotFoundException;
+import com.lucas.accounts_service.model.dtos.AccountResponse;
+import com.lucas.accounts_service.model.dtos.ClientResponse;
+import com.lucas.accounts_service.model.entities.Account;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the {@link AccountResponse} returned for a stored {@link Account} and its already resolved client.
+ */
+public final class AccountMapper {
+
+    private AccountMapper() {
+    }
+
+    public static AccountResponse toAccountResponse(Account account, ClientResponse client) {
+        return AccountResponse.builder()
+                .accountNumber(account.getAccountNumber())
+                .accountType(account.getAccountType())
+                .initialBalance(account.getInitialBalance())
+                .status(account.getStatus())
+                .clientResponse(client)
+                .version(account.getVersion())
+                .build();
+    }
+
+    // Clients are keyed by client id; an account whose client is missing fails the whole page.
+    public static List<AccountResponse> toAccountResponses(List<Account> accounts, Map<Long, ClientResponse> clients) {
+        return accounts.stream()
+                .map(account -> {
+                    ClientResponse client = clients.get(account.getClientId());
+                    if (client == null) {
+                        throw new ClientNotFoundException("Client with ID " + account.getClientId() + " not found");
+                    }
+                    return toAccountResponse(account, client);
+                })
+                .toList();
+    }
+}
@@ -1,30 +1,53 @@
 package com.lucas.accounts_service.services;
 
-import com.lucas.accounts_service.client.ClientAccount;
+import com.lucas.accounts_service.client.ClientLookup;
 import com.lucas.accounts_service.exeptions.ClientNotFoundException;
 import com.lucas.accounts_service.exeptions.ResourceNotFoundException;
+import com.lucas.accounts_service.exeptions.ServiceUnavailableException;
 import com.lucas.accounts_service.model.dtos.AccountRequest;
 import com.lucas.accounts_service.model.dtos.AccountResponse;
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
 import com.lucas.accounts_service.model.dtos.ClientResponse;
+import com.lucas.accounts_service.model.dtos.CursorPage;
 import com.lucas.accounts_service.model.entities.Account;
+import com.lucas.accounts_service.outbox.OutboxWriter;
 import com.lucas.accounts_service.repositories.AccountRepository;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class AccountService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final AccountRepository accountRepository;
-    private final ClientAccount clientAccount;
+    private final ClientLookup clientLookup;
+    private final PaginationProperties paginationProperties;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
 
+    // The client lookup runs before the transaction so no connection is held during the remote call.
     public void addAccount(AccountRequest accountRequest) {
-        searchClientById(accountRequest.getClientId());
+        var client = searchClientById(accountRequest.getClientId());
         var account = Account.builder()
                 .accountType(accountRequest.getAccountType())
                 .initialBalance(accountRequest.getInitialBalance())
@@ -32,59 +55,112 @@ public class AccountService {
                 .clientId(accountRequest.getClientId())
                 .build();
 
-        accountRepository.save(account);
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.save(account);
+            outboxWriter.record(ChangeEvent.ACCOUNT, account.getAccountNumber(), ChangeEvent.UPSERTED,
+                    changePayload(account, client));
+        });
     }
 
+    @Transactional
     public void removeAccount(Long id){
         boolean exists = accountRepository.existsById(id);
         if (!exists) {
             throw new ResourceNotFoundException("Account not found with id: " + id);
         }
         accountRepository.deleteById(id);
+        outboxWriter.record(ChangeEvent.ACCOUNT, id, ChangeEvent.DELETED, Map.of("accountNumber", id));
     }
 
     public Account updateAccount(Long id, AccountRequest accountRequestUpdated) {
-        searchClientById(accountRequestUpdated.getClientId());
-        return accountRepository.findById(id).map(account -> {
+        var client = searchClientById(accountRequestUpdated.getClientId());
+        return transactionTemplate.execute(status -> accountRepository.findById(id).map(account -> {
             account.setAccountType(accountRequestUpdated.getAccountType());
             account.setInitialBalance(accountRequestUpdated.getInitialBalance());
             account.setStatus(true);
             account.setClientId(accountRequestUpdated.getClientId());
 
-            return accountRepository.save(account);
-        }).orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
+            var saved = accountRepository.save(account);
+            outboxWriter.record(ChangeEvent.ACCOUNT, id, ChangeEvent.UPSERTED, changePayload(saved, client));
+            return saved;
+        }).orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id)));
     }
 
-    public List<AccountResponse> getAllAccount(){
-        var account = accountRepository.findAll();
+    public CursorPage<AccountResponse> getAllAccount(String cursor, Integer size){
+        int pageSize = paginationProperties.resolve(size);
+        var account = accountRepository.findByAccountNumberGreaterThanOrderByAccountNumberAsc(
+                CursorCodec.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasNext = account.size() > pageSize;
+        var page = hasNext ? account.subList(0, pageSize) : account;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getAccountNumber()) : null;
 
-        return account.stream().map(this::mapToAccountResponse).toList();
+        return new CursorPage<>(mapToAccountResponses(page), nextCursor);
     }
 
     public AccountResponse getAccountById(Long id){
         var account = accountRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
 
-        return mapToAccountResponse(account);
+        return AccountMapper.toAccountResponse(account, searchClientById(account.getClientId()));
     }
 
-    private AccountResponse mapToAccountResponse(Account account){
-        return AccountResponse.builder()
-                .accountNumber(account.getAccountNumber())
-                .accountType(account.getAccountType())
-                .initialBalance(account.getInitialBalance())
-                .status(account.getStatus())
-                .clientResponse(searchClientById(account.getClientId()))
-                .build();
+    /**
+     * Current ETag of the account without loading it: its own version plus the version of its client as
+     * the client lookup sees it, so a change to either produces a new tag. Empty if the account does not
+     * exist or the client's version is unknown. The client is read through {@link ClientLookup}, so when
+     * it is not cached this calls customers-service (a conditional request if a stale copy is known, a
+     * full fetch otherwise) even when the account ends up answered with a 304.
+     */
+    public Optional<String> findAccountETag(Long id){
+        return accountRepository.findVersionByAccountNumber(id)
+                .map(account -> ETags.of(account.getVersion(), searchClientById(account.getClientId()).getVersion()));
+    }
+
+    public String getAccountETag(AccountResponse account){
+        return ETags.of(account.getVersion(), account.getClientResponse().getVersion());
+    }
+
+    public List<AccountResponse> getAccountsByIds(Set<Long> ids){
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("No more than " + MAX_BATCH_SIZE + " accounts can be requested at once");
+        }
+
+        var accounts = accountRepository.findAllById(ids.stream().filter(Objects::nonNull).toList());
+
+        return mapToAccountResponses(accounts);
+    }
+
+    private List<AccountResponse> mapToAccountResponses(List<Account> accounts){
+        Set<Long> clientIds = accounts.stream()
+                .map(Account::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return AccountMapper.toAccountResponses(accounts, searchClientsByIds(clientIds));
+    }
+
+    private Map<String, Object> changePayload(Account account, ClientResponse client){
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("accountNumber", account.getAccountNumber());
+        payload.put("accountType", account.getAccountType());
+        payload.put("clientId", account.getClientId());
+        payload.put("clientName", client.getName());
+        payload.put("status", account.getStatus());
+        return payload;
     }
 
     private ClientResponse searchClientById(Long clientId) {
         try {
-            return clientAccount.getClientById(clientId);
+            return clientLookup.getClientById(clientId);
 
         } catch (FeignException.NotFound e) {
             throw new ClientNotFoundException("Client with ID " + clientId + " not found", e);
 
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Customer service call rejected: {}", e.getMessage());
+            throw new ServiceUnavailableException("Customer service is unavailable", e);
+
         } catch (FeignException e) {
             log.error("Feign error - Status: {}, Body: {}, Message: {}", e.status(), e.contentUTF8(), e.getMessage());
             throw new RuntimeException("Error calling the customer service", e);
@@ -95,6 +171,24 @@ public class AccountService {
         }
     }
 
+    private Map<Long, ClientResponse> searchClientsByIds(Set<Long> clientIds) {
+        try {
+            return clientLookup.getClientsByIds(clientIds);
+
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Customer service call rejected: {}", e.getMessage());
+            throw new ServiceUnavailableException("Customer service is unavailable", e);
+
+        } catch (FeignException e) {
+            log.error("Feign error - Status: {}, Body: {}, Message: {}", e.status(), e.contentUTF8(), e.getMessage());
+            throw new RuntimeException("Error calling the customer service", e);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while searching for clients", e);
+            throw new RuntimeException("Unexpected error", e);
+        }
+    }
+
 }
 
 
@@ -0,0 +1,27 @@
+package com.lucas.accounts_service.services;
+
+import com.lucas.accounts_service.client.ClientLookup;
+import com.lucas.accounts_service.model.dtos.ChangeEvent;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Consumes the customers-service change stream. Cached clients are dropped as soon as they change,
+ * instead of waiting for {@code cache.clients.ttl} to expire.
+ */
+@Service
+@Observed(name = "service.method")
+@RequiredArgsConstructor
+public class ClientEventService {
+
+    private final ClientLookup clientLookup;
+
+    public void apply(List<ChangeEvent> events) {
+        events.stream()
+                .filter(event -> ChangeEvent.CLIENT.equals(event.getAggregateType()) && event.getAggregateId() != null)
+                .forEach(event -> clientLookup.evict(event.getAggregateId()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.lucas.accounts_service.services;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags built from {@code @Version} columns, and the {@code If-None-Match} check against them.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // Null when a version is unknown, in which case no tag is sent and no request is answered with 304.
+    public static String of(Long... versions) {
+        if (Arrays.stream(versions).anyMatch(Objects::isNull)) {
+            return null;
+        }
+        return Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix on the caller's tag is ignored.
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+}
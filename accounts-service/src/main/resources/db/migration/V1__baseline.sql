@@ -0,0 +1,8 @@
+-- Schema as previously generated by ddl-auto=update. Safe to run on databases created that way.
+CREATE TABLE IF NOT EXISTS account (
+    account_number  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_type    VARCHAR(255),
+    initial_balance DOUBLE PRECISION,
+    status          BOOLEAN,
+    client_id       BIGINT
+);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_account_client_id ON account (client_id);
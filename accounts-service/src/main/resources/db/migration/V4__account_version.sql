@@ -0,0 +1,2 @@
+-- Optimistic-lock version, also part of the account's ETag. Existing rows start at 0.
+ALTER TABLE account ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
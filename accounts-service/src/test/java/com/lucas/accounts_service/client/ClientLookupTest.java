@@ -0,0 +1,166 @@
+package com.lucas.accounts_service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.accounts_service.model.dtos.ClientResponse;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientLookupTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/clientes/1",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClientAccount clientAccount;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ClientLookup clientLookup;
+
+    @BeforeEach
+    void setUp() {
+        clientAccount = mock(ClientAccount.class);
+        clientLookup = lookup(new ClientCacheProperties());
+    }
+
+    @Test
+    void testGetClientByIdCallsCustomersServiceOnlyOnce() throws Exception {
+        when(clientAccount.getClientById(1L, null)).thenReturn(ok(client(1L, "Juan"), null));
+
+        clientLookup.getClientById(1L);
+        ClientResponse client = clientLookup.getClientById(1L);
+
+        assertEquals("Juan", client.getName());
+        assertEquals(1, clientLookup.stats().hitCount());
+        verify(clientAccount, times(1)).getClientById(1L, null);
+    }
+
+    @Test
+    void testExpiredClientIsRevalidatedWithItsETag() throws Exception {
+        ClientCacheProperties properties = new ClientCacheProperties();
+        properties.setTtl(Duration.ZERO);
+        clientLookup = lookup(properties);
+
+        when(clientAccount.getClientById(1L, null)).thenReturn(ok(client(1L, "Juan"), "\"4\""));
+        when(clientAccount.getClientById(1L, "\"4\"")).thenReturn(notModified("\"4\""));
+
+        ClientResponse first = clientLookup.getClientById(1L);
+        ClientResponse second = clientLookup.getClientById(1L);
+
+        assertSame(first, second);
+        verify(clientAccount, times(1)).getClientById(1L, null);
+        verify(clientAccount, times(1)).getClientById(1L, "\"4\"");
+    }
+
+    @Test
+    void testServerErrorIsRetried() throws Exception {
+        when(clientAccount.getClientById(1L, null))
+                .thenReturn(status(503), status(500), ok(client(1L, "Juan"), null));
+
+        ClientResponse client = clientLookup.getClientById(1L);
+
+        assertEquals("Juan", client.getName());
+        verify(clientAccount, times(3)).getClientById(1L, null);
+    }
+
+    @Test
+    void testServerErrorIsRethrownOnceRetriesAreExhausted() {
+        when(clientAccount.getClientById(1L, null)).thenReturn(status(500), status(500), status(500));
+
+        assertThrows(FeignException.FeignServerException.class, () -> clientLookup.getClientById(1L));
+        verify(clientAccount, times(3)).getClientById(1L, null);
+    }
+
+    @Test
+    void testNotFoundIsNeitherRetriedNorCountedByTheCircuitBreaker() {
+        when(clientAccount.getClientById(1L, null)).thenReturn(status(404));
+
+        assertThrows(FeignException.NotFound.class, () -> clientLookup.getClientById(1L));
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ClientLookup.CUSTOMERS_SERVICE);
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfBufferedCalls());
+        verify(clientAccount, times(1)).getClientById(1L, null);
+    }
+
+    @Test
+    void testServesLastKnownClientWhenCustomersServiceFails() throws Exception {
+        ClientCacheProperties properties = new ClientCacheProperties();
+        properties.setTtl(Duration.ZERO);
+        clientLookup = lookup(properties);
+
+        when(clientAccount.getClientById(1L, null)).thenReturn(ok(client(1L, "Juan"), "\"4\""));
+        when(clientAccount.getClientById(1L, "\"4\"")).thenReturn(status(500), status(500), status(500));
+
+        clientLookup.getClientById(1L);
+        ClientResponse client = clientLookup.getClientById(1L);
+
+        assertEquals("Juan", client.getName());
+        verify(clientAccount, times(3)).getClientById(1L, "\"4\"");
+    }
+
+    // Same retry and breaker rules as the customers-service instances in application.properties.
+    private ClientLookup lookup(ClientCacheProperties properties) {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build());
+        return new ClientLookup(clientAccount, properties, objectMapper,
+                BulkheadRegistry.ofDefaults(),
+                circuitBreakerRegistry,
+                RetryRegistry.of(RetryConfig.custom()
+                        .maxAttempts(3)
+                        .waitDuration(Duration.ofMillis(1))
+                        .retryExceptions(RetryableException.class, FeignException.FeignServerException.class)
+                        .build()));
+    }
+
+    private Response ok(ClientResponse client, String etag) throws JsonProcessingException {
+        Map<String, Collection<String>> headers = etag == null ? Map.of() : Map.of(HttpHeaders.ETAG, List.of(etag));
+        return Response.builder()
+                .status(200)
+                .request(REQUEST)
+                .headers(headers)
+                .body(objectMapper.writeValueAsBytes(client))
+                .build();
+    }
+
+    private Response notModified(String etag) {
+        return Response.builder()
+                .status(304)
+                .request(REQUEST)
+                .headers(Map.of(HttpHeaders.ETAG, List.of(etag)))
+                .build();
+    }
+
+    private Response status(int status) {
+        return Response.builder()
+                .status(status)
+                .request(REQUEST)
+                .headers(Map.of())
+                .build();
+    }
+
+    private ClientResponse client(Long id, String name) {
+        return ClientResponse.builder().id(id).name(name).version(4L).build();
+    }
+}
@@ -4,6 +4,7 @@ import com.lucas.accounts_service.exeptions.ResourceNotFoundException;
 import com.lucas.accounts_service.model.dtos.AccountRequest;
 import com.lucas.accounts_service.model.dtos.AccountResponse;
 import com.lucas.accounts_service.model.dtos.ClientResponse;
+import com.lucas.accounts_service.model.dtos.CursorPage;
 import com.lucas.accounts_service.model.entities.Account;
 import com.lucas.accounts_service.services.AccountService;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -70,51 +73,53 @@ class AccountControllerTest {
 
     @Test
     void testGetAllAccountReturnsEmptyList() {
-        when(accountService.getAllAccount()).thenReturn(Collections.emptyList());
+        when(accountService.getAllAccount(null, null)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
-        ResponseEntity<List<AccountResponse>> response = accountController.getAllAccount();
+        ResponseEntity<List<AccountResponse>> response = accountController.getAllAccount(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
+        assertFalse(response.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER));
 
-        verify(accountService).getAllAccount();
+        verify(accountService).getAllAccount(null, null);
     }
 
     @Test
     void testGetAllAccountReturnsAccountList() {
         AccountResponse acc1 = new AccountResponse(1L, "Ahorros",1000.0, true
-                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true)
+                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 0L), 0L
         );
 
         AccountResponse acc2 = new AccountResponse(2L, "Corriente",2000.0, true
-                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true)
+                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 0L), 0L
         );
 
         List<AccountResponse> accountList = Arrays.asList(acc1, acc2);
-        when(accountService.getAllAccount()).thenReturn(accountList);
+        when(accountService.getAllAccount(null, 2)).thenReturn(new CursorPage<>(accountList, "Mg"));
 
-        ResponseEntity<List<AccountResponse>> response = accountController.getAllAccount();
+        ResponseEntity<List<AccountResponse>> response = accountController.getAllAccount(null, 2);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
         assertEquals("Ahorros", response.getBody().get(0).getAccountType());
         assertEquals(2000.0, response.getBody().get(1).getInitialBalance());
+        assertEquals("Mg", response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
 
-        verify(accountService).getAllAccount();
+        verify(accountService).getAllAccount(null, 2);
     }
 
     @Test
     void testGetAccountByIdReturnsAccount() {
         Long accountId = 1L;
         AccountResponse expectedAccount = new AccountResponse(accountId, "Ahorros",1500.0, true
-                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true)
+                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 0L), 0L
         );
 
         when(accountService.getAccountById(accountId)).thenReturn(expectedAccount);
 
-        ResponseEntity<AccountResponse> response = accountController.getAccountById(accountId);
+        ResponseEntity<AccountResponse> response = accountController.getAccountById(accountId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -124,6 +129,31 @@ class AccountControllerTest {
         verify(accountService).getAccountById(accountId);
     }
 
+    @Test
+    void testGetAccountByIdReturnsETag() {
+        AccountResponse account = new AccountResponse(1L, "Ahorros",1500.0, true
+                , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 7L), 3L
+        );
+        when(accountService.getAccountById(1L)).thenReturn(account);
+        when(accountService.getAccountETag(account)).thenReturn("\"3.7\"");
+
+        ResponseEntity<AccountResponse> response = accountController.getAccountById(1L, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3.7\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetAccountByIdReturnsNotModifiedWithoutLoadingAccount() {
+        when(accountService.findAccountETag(1L)).thenReturn(Optional.of("\"3.7\""));
+
+        ResponseEntity<AccountResponse> response = accountController.getAccountById(1L, "\"3.7\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(accountService, never()).getAccountById(anyLong());
+    }
+
     @Test
     void testGetAccountByIdThrowsResourceNotFoundExceptionWhenNotFound() {
         Long nonexistentId = 99L;
@@ -132,7 +162,7 @@ class AccountControllerTest {
                 .thenThrow(new ResourceNotFoundException("Account not found with id: " + nonexistentId));
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
-            accountController.getAccountById(nonexistentId);
+            accountController.getAccountById(nonexistentId, null);
         });
 
         assertEquals("Account not found with id: 99", exception.getMessage());
@@ -218,4 +248,26 @@ class AccountControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void testGetAccountsByIdsReturnsAccountList() {
+        Set<Long> ids = Set.of(1L, 2L);
+        List<AccountResponse> accountList = List.of(
+                new AccountResponse(1L, "Ahorros", 1000.0, true
+                        , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 0L), 0L),
+                new AccountResponse(2L, "Corriente", 2000.0, true
+                        , new ClientResponse(1L,"Juan","M",21,"123123123","Calle 125","092444444","pass",true, 0L), 0L)
+        );
+
+        when(accountService.getAccountsByIds(ids)).thenReturn(accountList);
+
+        ResponseEntity<List<AccountResponse>> response = accountController.searchAccountsByIds(ids);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertEquals("Corriente", response.getBody().get(1).getAccountType());
+
+        verify(accountService).getAccountsByIds(ids);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.lucas.accounts_service.services;
+
+import com.lucas.accounts_service.client.ClientLookup;
+import com.lucas.accounts_service.model.dtos.AccountResponse;
+import com.lucas.accounts_service.model.dtos.ClientResponse;
+import com.lucas.accounts_service.model.dtos.CursorPage;
+import com.lucas.accounts_service.model.entities.Account;
+import com.lucas.accounts_service.outbox.OutboxWriter;
+import com.lucas.accounts_service.repositories.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountServiceTest {
+
+    private AccountRepository accountRepository;
+    private ClientLookup clientLookup;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        clientLookup = mock(ClientLookup.class);
+        accountService = new AccountService(accountRepository, clientLookup, new PaginationProperties(),
+                mock(OutboxWriter.class), mock(TransactionTemplate.class));
+    }
+
+    @Test
+    void testGetAccountsByIdsRejectsMoreThanMaxBatchSize() {
+        Set<Long> ids = ids(AccountService.MAX_BATCH_SIZE + 1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> accountService.getAccountsByIds(ids));
+
+        assertEquals("No more than 1000 accounts can be requested at once", exception.getMessage());
+        verifyNoInteractions(accountRepository, clientLookup);
+    }
+
+    @Test
+    void testGetAccountsByIdsAcceptsMaxBatchSize() {
+        Set<Long> ids = ids(AccountService.MAX_BATCH_SIZE);
+        Account account = Account.builder().accountNumber(1L).accountType("Ahorros").initialBalance(100.0)
+                .status(true).clientId(5L).version(0L).build();
+        ClientResponse client = new ClientResponse(5L, "Juan", "M", 21, "123123123", "Calle 125", "092444444", "pass", true, 0L);
+
+        when(accountRepository.findAllById(anyList())).thenReturn(List.of(account));
+        when(clientLookup.getClientsByIds(Set.of(5L))).thenReturn(Map.of(5L, client));
+
+        List<AccountResponse> accounts = accountService.getAccountsByIds(ids);
+
+        assertEquals(1, accounts.size());
+        assertEquals("Juan", accounts.getFirst().getClientResponse().getName());
+    }
+
+    @Test
+    void testGetAllAccountWithoutCursorOrSizeReturnsTheDefaultPageAndANextCursor() {
+        List<Account> accounts = LongStream.rangeClosed(1, 51)
+                .mapToObj(number -> Account.builder().accountNumber(number).accountType("Ahorros")
+                        .initialBalance(100.0).status(true).clientId(5L).version(0L).build())
+                .toList();
+        ClientResponse client = new ClientResponse(5L, "Juan", "M", 21, "123123123", "Calle 125", "092444444", "pass", true, 0L);
+
+        when(accountRepository.findByAccountNumberGreaterThanOrderByAccountNumberAsc(0L, Limit.of(51)))
+                .thenReturn(accounts);
+        when(clientLookup.getClientsByIds(Set.of(5L))).thenReturn(Map.of(5L, client));
+
+        CursorPage<AccountResponse> page = accountService.getAllAccount(null, null);
+
+        assertEquals(50, page.getItems().size());
+        assertEquals(50L, CursorCodec.decode(page.getNextCursor()));
+    }
+
+    private static Set<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().collect(Collectors.toSet());
+    }
+}
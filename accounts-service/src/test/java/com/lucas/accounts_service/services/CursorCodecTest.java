@@ -0,0 +1,29 @@
+package com.lucas.accounts_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void shouldDecodeEncodedId() {
+        String cursor = CursorCodec.encode(12345L);
+
+        assertEquals(12345L, CursorCodec.decode(cursor));
+    }
+
+    @Test
+    void shouldStartFromTheBeginningWithoutCursor() {
+        assertEquals(0L, CursorCodec.decode(null));
+        assertEquals(0L, CursorCodec.decode(""));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> CursorCodec.decode("not a cursor"));
+
+        assertEquals("Invalid cursor: not a cursor", exception.getMessage());
+    }
+}
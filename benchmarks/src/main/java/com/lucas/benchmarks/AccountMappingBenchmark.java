@@ -0,0 +1,94 @@
+package com.lucas.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.accounts_service.client.ClientAccount;
+import com.lucas.accounts_service.client.ClientCacheProperties;
+import com.lucas.accounts_service.client.ClientLookup;
+import com.lucas.accounts_service.model.dtos.AccountResponse;
+import com.lucas.accounts_service.model.dtos.ClientResponse;
+import com.lucas.accounts_service.model.entities.Account;
+import com.lucas.accounts_service.services.AccountMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Account mapping in accounts-service. A page resolves its clients through {@link ClientLookup} before
+ * mapping; {@code cached=false} clears the client cache on every call, so the page goes through the
+ * resilience decorators and the stubbed Feign client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountMappingBenchmark {
+
+    @Param({"50", "500"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    private ClientLookup clientLookup;
+    private List<Account> accounts;
+    private ClientResponse client;
+
+    @Setup
+    public void setUp() {
+        accounts = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            accounts.add(Account.builder()
+                    .accountNumber(i)
+                    .accountType(i % 2 == 0 ? "Ahorros" : "Corriente")
+                    .initialBalance(1000.0)
+                    .status(true)
+                    .clientId(i % 25 + 1)
+                    .build());
+        }
+        client = client(1L);
+
+        // Page mapping only goes through the batch endpoint.
+        ClientAccount clientAccount = Stubs.answering(ClientAccount.class, "getClientsByIds",
+                args -> ((Collection<?>) args[0]).stream().map(id -> client((Long) id)).toList());
+        clientLookup = new ClientLookup(clientAccount, new ClientCacheProperties(), new ObjectMapper(),
+                BulkheadRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public AccountResponse mapRow() {
+        return AccountMapper.toAccountResponse(accounts.get(0), client);
+    }
+
+    @Benchmark
+    public List<AccountResponse> mapPage() {
+        if (!cached) {
+            clientLookup.evictAll();
+        }
+        Set<Long> clientIds = accounts.stream().map(Account::getClientId).collect(Collectors.toSet());
+        return AccountMapper.toAccountResponses(accounts, clientLookup.getClientsByIds(clientIds));
+    }
+
+    private static ClientResponse client(Long id) {
+        return ClientResponse.builder()
+                .id(id)
+                .name("Cliente " + id)
+                .gender("F")
+                .age(30)
+                .identification("ID-" + id)
+                .address("Calle " + id)
+                .phoneNumber("0999999999")
+                .status(true)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.lucas.benchmarks;
+
+import com.lucas.customers_service.model.dtos.ClientResponse;
+import com.lucas.customers_service.model.entities.Client;
+import com.lucas.customers_service.services.ClientMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientMappingBenchmark {
+
+    private static final int PAGE_SIZE = 500;
+
+    private List<Client> clients;
+
+    @Setup
+    public void setUp() {
+        clients = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            clients.add(new Client("Cliente " + i, "M", 30, "ID-" + i, "Calle " + i, "0999999999", i, "secret", true));
+        }
+    }
+
+    @Benchmark
+    public ClientResponse mapRow() {
+        return ClientMapper.toClientResponse(clients.get(0));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ClientResponse> mapPage() {
+        return clients.stream().map(ClientMapper::toClientResponse).toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.lucas.benchmarks;
+
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.ClientResponse;
+import com.lucas.transactions_service.model.dtos.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lombok builders against the generated all-args constructors for the DTOs built once per report row.
+ * Run with {@code -prof gc} to see whether the builder allocation is being scalar-replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConstructionBenchmark {
+
+    private final LocalDate date = LocalDate.of(2025, 3, 14);
+    private long id = 1;
+
+    @Benchmark
+    public TransactionResponse transactionBuilder() {
+        return TransactionResponse.builder()
+                .id(id++)
+                .date(date)
+                .clientName("Juan Perez")
+                .accountNumber(478758L)
+                .type("Retiro")
+                .initialbalance(2000)
+                .state(true)
+                .transactionAmount(-575)
+                .availableBalance(1425)
+                .build();
+    }
+
+    @Benchmark
+    public TransactionResponse transactionConstructor() {
+        return new TransactionResponse(id++, date, "Juan Perez", 478758L, "Retiro", 2000, true, -575, 1425);
+    }
+
+    @Benchmark
+    public AccountResponse accountBuilder() {
+        return AccountResponse.builder()
+                .accountNumber(id++)
+                .accountType("Ahorros")
+                .initialBalance(2000.0)
+                .status(true)
+                .clientResponse(ClientResponse.builder()
+                        .id(1L)
+                        .name("Juan Perez")
+                        .gender("M")
+                        .age(30)
+                        .identification("0102030405")
+                        .address("Otavalo sn y principal")
+                        .phoneNumber("098254785")
+                        .status("true")
+                        .build())
+                .build();
+    }
+}
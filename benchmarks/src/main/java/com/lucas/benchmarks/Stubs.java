@@ -0,0 +1,30 @@
+package com.lucas.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * Minimal stand-ins for Spring Data repositories and Feign clients. Only the named method answers; anything else fails
+ * loudly so a benchmark cannot silently measure a code path it did not intend to.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> T answering(Class<T> type, String methodName, Function<Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(methodName)) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        }));
+    }
+}
@@ -0,0 +1,107 @@
+package com.lucas.benchmarks;
+
+import com.lucas.transactions_service.model.dtos.TransactionResponse;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountSummary;
+import com.lucas.transactions_service.repositories.AccountViewRepository;
+import com.lucas.transactions_service.services.TransactionMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Report row mapping in transactions-service: one row against resolved client names, and a whole page
+ * including the client name query against a stubbed read model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+
+    @Param({"100", "1000"})
+    int rows;
+
+    private AccountViewRepository accountViewRepository;
+    private List<Transaction> transactions;
+    private Map<Long, String> clientNames;
+
+    @Setup
+    public void setUp() {
+        int accounts = Math.max(1, rows / 10);
+        transactions = new ArrayList<>(rows);
+        clientNames = new HashMap<>();
+        List<AccountSummary> summaries = new ArrayList<>();
+
+        for (long accountNumber = 1; accountNumber <= accounts; accountNumber++) {
+            clientNames.put(accountNumber, "Cliente " + accountNumber);
+            summaries.add(new Summary(accountNumber, "Cliente " + accountNumber));
+        }
+        for (int i = 0; i < rows; i++) {
+            transactions.add(Transaction.builder()
+                    .id((long) i)
+                    .date(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .accountNumber((long) (i % accounts) + 1)
+                    .type(i % 2 == 0 ? "Deposito" : "Retiro")
+                    .initialbalance(1000)
+                    .state(true)
+                    .transactionAmount(i % 2 == 0 ? 100 : -100)
+                    .availableBalance(1000 + (i % 2 == 0 ? 100 : -100))
+                    .build());
+        }
+
+        accountViewRepository = Stubs.answering(AccountViewRepository.class, "findSummaries",
+                args -> summaries.stream()
+                        .filter(summary -> ((Collection<?>) args[0]).contains(summary.getAccountNumber()))
+                        .toList());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public TransactionResponse mapRow() {
+        return TransactionMapper.toTransactionResponse(transactions.get(0), clientNames);
+    }
+
+    @Benchmark
+    public List<TransactionResponse> mapPage() {
+        Set<Long> accountNumbers = transactions.stream().map(Transaction::getAccountNumber).collect(Collectors.toSet());
+        Map<Long, String> names = new HashMap<>();
+        for (AccountSummary summary : accountViewRepository.findSummaries(accountNumbers)) {
+            names.put(summary.getAccountNumber(), summary.getClientName());
+        }
+        return TransactionMapper.toTransactionResponses(transactions, names);
+    }
+
+    private record Summary(Long accountNumber, String clientName) implements AccountSummary {
+
+        @Override
+        public Long getAccountNumber() {
+            return accountNumber;
+        }
+
+        @Override
+        public Long getClientId() {
+            return accountNumber;
+        }
+
+        @Override
+        public String getClientName() {
+            return clientName;
+        }
+
+        @Override
+        public Boolean getStatus() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.lucas.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lucas.transactions_service.model.dtos.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of report pages, configured the way Spring Boot configures its ObjectMapper.
+ * {@code ndjson} mirrors the streaming report endpoint, which writes one object per line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<TransactionResponse> transactions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<TransactionResponse>>() { });
+
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(new TransactionResponse((long) i, LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                    "Cliente " + (i % 100), (long) (i % 100), i % 2 == 0 ? "Deposito" : "Retiro",
+                    1000, true, i % 2 == 0 ? 100 : -100, 1000 + (i % 2 == 0 ? 100 : -100)));
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public byte[] jsonArrayWithTypedWriter() throws IOException {
+        return listWriter.writeValueAsBytes(transactions);
+    }
+
+    @Benchmark
+    public int ndjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 192);
+        for (TransactionResponse transaction : transactions) {
+            out.write(objectMapper.writeValueAsBytes(transaction));
+            out.write('\n');
+        }
+        return out.size();
+    }
+}
@@ -2,13 +2,19 @@ package com.lucas.customers_service.controllers;
 
 import com.lucas.customers_service.model.dtos.ClientRequest;
 import com.lucas.customers_service.model.dtos.ClientResponse;
+import com.lucas.customers_service.model.dtos.CursorPage;
+import com.lucas.customers_service.services.ClientResponseCache;
 import com.lucas.customers_service.services.ClientService;
+import com.lucas.customers_service.services.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/clientes")
@@ -24,15 +30,41 @@ public class ClientController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ClientResponse>> getAllClients() {
-        List<ClientResponse> clients = clientService.getAllClients();
-        return ResponseEntity.ok(clients);
+    public ResponseEntity<List<ClientResponse>> getAllClients(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        CursorPage<ClientResponse> clients = clientService.getAllClients(cursor, size);
+        return withNextCursor(clients);
     }
 
+    // The body comes pre-serialized from the client cache and is written as is. A matching If-None-Match
+    // is answered with 304 after checking only the client's version.
     @GetMapping("/{id}")
-    public ResponseEntity<ClientResponse> getClientById(@PathVariable Long id) {
-        ClientResponse client = clientService.getClientById(id);
-        return ResponseEntity.ok(client);
+    public ResponseEntity<byte[]> getClientById(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = clientService.findClientVersion(id).map(ETags::of).orElse(null);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+
+        ClientResponseCache.Entry client = clientService.getClientJsonById(id);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(client.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(client.body());
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<ClientResponse>> getClientsByIds(@RequestParam Set<Long> ids) {
+        List<ClientResponse> clients = clientService.getClientsByIds(ids);
+        return ResponseEntity.ok(clients);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ClientResponse>> searchClientsByIds(@RequestBody Set<Long> ids) {
+        List<ClientResponse> clients = clientService.getClientsByIds(ids);
+        return ResponseEntity.ok(clients);
     }
 
     @DeleteMapping("/{id}")
@@ -46,4 +78,12 @@ public class ClientController {
         clientService.updateClient(id, clientRequest);
         return ResponseEntity.ok().build();
     }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(CursorPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
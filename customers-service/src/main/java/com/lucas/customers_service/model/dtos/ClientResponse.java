@@ -19,4 +19,5 @@ public class ClientResponse {
     private String phoneNumber;
     private String password;
     private Boolean status;
+    private Long version;
 }
@@ -19,6 +19,9 @@ public class Client extends Person{
     private String password;
     private Boolean status;
 
+    @Version
+    private Long version;
+
     public Client(String name, String gender, Integer age, String identification, String address, String phoneNumber, Long clientId, String password, Boolean status) {
         super(name, gender, age, identification, address, phoneNumber);
         this.clientId = clientId;
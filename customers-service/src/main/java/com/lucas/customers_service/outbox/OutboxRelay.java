@@ -0,0 +1,127 @@
+package com.lucas.customers_service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.customers_service.model.dtos.ChangeEvent;
+import com.lucas.customers_service.model.entities.OutboxEvent;
+import com.lucas.customers_service.repositories.OutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publishes outbox rows in id order to each destination on its own, one batch at a time. A batch is
+ * claimed for a destination in a short transaction, published with no transaction or lock held, and
+ * then marked as delivered there, so a slow or failing consumer only delays its own events. A failed
+ * publish releases the claim and leaves the rows pending for that destination alone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final EventPublisher eventPublisher;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Destinations with a drain still running; the next poll skips them instead of starting another.
+    private final Set<String> draining = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        for (String destination : eventPublisher.destinations()) {
+            if (draining.add(destination)) {
+                executor.execute(() -> {
+                    try {
+                        drain(destination);
+                    } finally {
+                        draining.remove(destination);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int publishBatch(String destination) {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claim(destination));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        try {
+            eventPublisher.publish(destination, batch.stream().map(this::toChangeEvent).toList());
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseClaims(destination, ids));
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.markDelivered(destination, ids, now);
+            outboxRepository.markPublished(ids, eventPublisher.destinations(), now);
+        });
+        return batch.size();
+    }
+
+    private void drain(String destination) {
+        try {
+            int published;
+            do {
+                published = publishBatch(destination);
+            } while (published == outboxProperties.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Outbox relay to {} failed, pending events will be retried: {}", destination, e.toString());
+        }
+    }
+
+    private List<OutboxEvent> claim(String destination) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepository.lockPending(destination, outboxProperties.getBatchSize(), now);
+        if (!batch.isEmpty()) {
+            outboxRepository.claim(destination, batch.stream().map(OutboxEvent::getId).toList(),
+                    now.plus(outboxProperties.getClaimTimeout()));
+        }
+        return batch;
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 0 3 * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(outboxProperties.getRetention());
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deletePublishedBefore(before));
+        log.info("Purged {} published outbox events", purged);
+    }
+
+    private ChangeEvent toChangeEvent(OutboxEvent event) {
+        try {
+            return ChangeEvent.builder()
+                    .sequence(event.getId())
+                    .aggregateType(event.getAggregateType())
+                    .aggregateId(event.getAggregateId())
+                    .type(event.getType())
+                    .payload(objectMapper.readTree(event.getPayload()))
+                    .occurredAt(event.getOccurredAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload in outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.lucas.customers_service.repositories;
 
 import com.lucas.customers_service.model.entities.Client;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public interface ClientRepository extends JpaRepository<Client, Long> {
+
+    List<Client> findByClientIdGreaterThanOrderByClientIdAsc(Long clientId, Limit limit);
+
+    // Enough to answer a conditional GET without loading the client.
+    @Query("select c.version from Client c where c.clientId = :clientId")
+    Optional<Long> findVersionByClientId(@Param("clientId") Long clientId);
 }
@@ -0,0 +1,65 @@
+package com.lucas.customers_service.repositories;
+
+import com.lucas.customers_service.model.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Events not yet delivered to this destination nor claimed for it by a relay still within its
+    // claim. SKIP LOCKED keeps two relays from claiming the same rows while the claim is being stored.
+    @Query(value = """
+            select e.* from outbox_event e
+            where e.published_at is null
+              and not exists (select 1 from outbox_delivery d
+                              where d.destination = :destination and d.event_id = e.id
+                                and (d.delivered_at is not null or d.claimed_until > :now))
+            order by e.id
+            limit :limit
+            for update of e skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> lockPending(@Param("destination") String destination, @Param("limit") int limit,
+                                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            insert into outbox_delivery (destination, event_id, claimed_until)
+            select :destination, e.id, :claimedUntil from outbox_event e where e.id in :ids
+            on conflict (destination, event_id) do update set claimed_until = excluded.claimed_until
+            """, nativeQuery = true)
+    int claim(@Param("destination") String destination, @Param("ids") Collection<Long> ids,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query(value = "delete from outbox_delivery where destination = :destination and event_id in :ids " +
+            "and delivered_at is null", nativeQuery = true)
+    int releaseClaims(@Param("destination") String destination, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "update outbox_delivery set delivered_at = :deliveredAt " +
+            "where destination = :destination and event_id in :ids", nativeQuery = true)
+    int markDelivered(@Param("destination") String destination, @Param("ids") Collection<Long> ids,
+                      @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    // An event counts as published once every configured destination has it; only then can it be purged.
+    @Modifying
+    @Query(value = """
+            update outbox_event e set published_at = :publishedAt
+            where e.id in :ids and e.published_at is null
+              and (select count(*) from outbox_delivery d
+                   where d.event_id = e.id and d.delivered_at is not null
+                     and d.destination in :destinations) = :#{#destinations.size()}
+            """, nativeQuery = true)
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("destinations") Collection<String> destinations,
+                      @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,18 @@
+package com.lucas.customers_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.clients")
+public class ClientCacheProperties {
+
+    private long maximumSize = 10_000;
+
+    // Entries are dropped on every update or delete; the ttl only bounds memory held by idle clients.
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,28 @@
+package com.lucas.customers_service.services;
+
+import com.lucas.customers_service.model.dtos.ClientResponse;
+import com.lucas.customers_service.model.entities.Client;
+
+/**
+ * Builds the {@link ClientResponse} returned for a stored {@link Client}.
+ */
+public final class ClientMapper {
+
+    private ClientMapper() {
+    }
+
+    public static ClientResponse toClientResponse(Client client) {
+        return ClientResponse.builder()
+                .id(client.getClientId())
+                .name(client.getName())
+                .gender(client.getGender())
+                .age(client.getAge())
+                .identification(client.getIdentification())
+                .address(client.getAddress())
+                .phoneNumber(client.getPhoneNumber())
+                .password(client.getPassword())
+                .status(client.getStatus())
+                .version(client.getVersion())
+                .build();
+    }
+}
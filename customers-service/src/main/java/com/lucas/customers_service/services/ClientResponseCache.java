@@ -0,0 +1,77 @@
+package com.lucas.customers_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lucas.customers_service.model.dtos.ClientResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link ClientResponse} bodies, kept as the JSON bytes the controller writes, so a
+ * hit costs neither a query nor a serialization. Writers drop the entry once their transaction commits;
+ * a load racing with that commit finishes before the entry is dropped, so it cannot survive it. Each
+ * entry keeps the client's version, so conditional requests for cached clients need no query either.
+ */
+@Component
+public class ClientResponseCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> responses;
+
+    public ClientResponseCache(ObjectMapper objectMapper, ClientCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    // Exceptions thrown by the loader reach the caller and nothing is cached.
+    public Entry get(Long id, Function<Long, ClientResponse> loader) {
+        return responses.get(id, key -> serialize(loader.apply(key)));
+    }
+
+    public Optional<Long> findVersion(Long id) {
+        return Optional.ofNullable(responses.getIfPresent(id)).map(Entry::version);
+    }
+
+    public void invalidateAfterCommit(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.invalidate(id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.invalidate(id);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "client-responses");
+    }
+
+    private Entry serialize(ClientResponse clientResponse) {
+        try {
+            return new Entry(objectMapper.writeValueAsBytes(clientResponse), clientResponse.getVersion());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize client " + clientResponse.getId(), e);
+        }
+    }
+
+    public record Entry(byte[] body, Long version) {
+    }
+}
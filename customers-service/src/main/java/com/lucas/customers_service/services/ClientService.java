@@ -1,25 +1,43 @@
 package com.lucas.customers_service.services;
 
 import com.lucas.customers_service.exeptions.ResourceNotFoundException;
+import com.lucas.customers_service.model.dtos.ChangeEvent;
 import com.lucas.customers_service.model.dtos.ClientRequest;
 import com.lucas.customers_service.model.dtos.ClientResponse;
+import com.lucas.customers_service.model.dtos.CursorPage;
 import com.lucas.customers_service.model.entities.Client;
+import com.lucas.customers_service.outbox.OutboxWriter;
 import com.lucas.customers_service.repositories.ClientRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Observed(name = "service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class ClientService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private final ClientRepository clientRepository;
+    private final PaginationProperties paginationProperties;
+    private final OutboxWriter outboxWriter;
+    private final ClientResponseCache clientResponseCache;
 
+    @Transactional
     public void addClient(ClientRequest clientRequest){
         var client = Client.builder()
                 .name(clientRequest.getName())
@@ -33,8 +51,10 @@ public class ClientService {
                 .build();
 
         clientRepository.save(client);
+        outboxWriter.record(ChangeEvent.CLIENT, client.getClientId(), ChangeEvent.UPSERTED, changePayload(client));
     }
 
+    @Transactional
     public void removeClient(Long id){
         boolean exists = clientRepository.existsById(id);;
         if (!exists) {
@@ -42,8 +62,11 @@ public class ClientService {
         }
 
         clientRepository.deleteById(id);
+        clientResponseCache.invalidateAfterCommit(id);
+        outboxWriter.record(ChangeEvent.CLIENT, id, ChangeEvent.DELETED, Map.of("clientId", id));
     }
 
+    @Transactional
     public Client updateClient(Long id, ClientRequest clientRequestUpdated) {
         return clientRepository.findById(id).map(client -> {
             client.setName(clientRequestUpdated.getName());
@@ -54,37 +77,64 @@ public class ClientService {
             client.setPhoneNumber(clientRequestUpdated.getPhoneNumber());
             client.setPassword(clientRequestUpdated.getPassword());
             client.setStatus(true);
-            return clientRepository.save(client);
+            var saved = clientRepository.save(client);
+            clientResponseCache.invalidateAfterCommit(id);
+            outboxWriter.record(ChangeEvent.CLIENT, id, ChangeEvent.UPSERTED, changePayload(saved));
+            return saved;
         }).orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
     }
 
 
 
-    public List<ClientResponse> getAllClients(){
-        var clients = clientRepository.findAll();
-        return clients.stream().map(this::mapToClientResponse).toList();
+    public CursorPage<ClientResponse> getAllClients(String cursor, Integer size){
+        int pageSize = paginationProperties.resolve(size);
+        var clients = clientRepository.findByClientIdGreaterThanOrderByClientIdAsc(
+                CursorCodec.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasNext = clients.size() > pageSize;
+        var page = hasNext ? clients.subList(0, pageSize) : clients;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getClientId()) : null;
+
+        return new CursorPage<>(page.stream().map(ClientMapper::toClientResponse).toList(), nextCursor);
     }
 
     public ClientResponse getClientById(Long id){
         var client = clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Client not found with id: " + id));
 
-        return mapToClientResponse(client);
+        return ClientMapper.toClientResponse(client);
     }
 
+    /**
+     * The client as the JSON body of {@code GET /api/clientes/{id}}, served from {@link ClientResponseCache}
+     * and loaded through {@link #getClientById} on a miss.
+     */
+    public ClientResponseCache.Entry getClientJsonById(Long id){
+        return clientResponseCache.get(id, this::getClientById);
+    }
 
-    public ClientResponse mapToClientResponse(Client client){
-        return ClientResponse.builder()
-                .id(client.getClientId())
-                .name(client.getName())
-                .gender(client.getGender())
-                .age(client.getAge())
-                .identification(client.getIdentification())
-                .address(client.getAddress())
-                .phoneNumber(client.getPhoneNumber())
-                .password(client.getPassword())
-                .status(client.getStatus())
-                .build();
+    // Cached clients answer from memory; the rest with a query that reads only the version column.
+    public Optional<Long> findClientVersion(Long id){
+        return clientResponseCache.findVersion(id)
+                .or(() -> clientRepository.findVersionByClientId(id));
+    }
+
+    public List<ClientResponse> getClientsByIds(Set<Long> ids){
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("No more than " + MAX_BATCH_SIZE + " clients can be requested at once");
+        }
+
+        var clients = clientRepository.findAllById(ids.stream().filter(Objects::nonNull).toList());
+        return clients.stream().map(ClientMapper::toClientResponse).toList();
+    }
+
+    // Only what consumers need; the password never leaves this service through events.
+    private Map<String, Object> changePayload(Client client){
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("clientId", client.getClientId());
+        payload.put("name", client.getName());
+        payload.put("status", client.getStatus());
+        return payload;
     }
 
 
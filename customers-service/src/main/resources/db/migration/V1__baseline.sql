@@ -0,0 +1,12 @@
+-- Schema as previously generated by ddl-auto=update. Safe to run on databases created that way.
+CREATE TABLE IF NOT EXISTS client (
+    client_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255),
+    gender         VARCHAR(255),
+    age            INTEGER,
+    identification VARCHAR(255),
+    address        VARCHAR(255),
+    phone_number   VARCHAR(255),
+    password       VARCHAR(255),
+    status         BOOLEAN
+);
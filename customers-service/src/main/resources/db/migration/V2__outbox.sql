@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(32)  NOT NULL,
+    aggregate_id   BIGINT       NOT NULL,
+    type           VARCHAR(32)  NOT NULL,
+    payload        TEXT         NOT NULL,
+    occurred_at    TIMESTAMP    NOT NULL,
+    published_at   TIMESTAMP
+);
+
+-- The relay only ever scans pending rows.
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending ON outbox_event (id) WHERE published_at IS NULL;
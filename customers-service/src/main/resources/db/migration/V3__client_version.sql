@@ -0,0 +1,2 @@
+-- Optimistic-lock version, also the source of the client's ETag. Existing rows start at 0.
+ALTER TABLE client ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
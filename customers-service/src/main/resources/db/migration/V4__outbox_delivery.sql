@@ -0,0 +1,11 @@
+-- Delivery state per destination, so one failing or slow consumer does not hold back the others.
+-- A row with claimed_until in the future is being published by a relay; delivered_at marks it done.
+CREATE TABLE IF NOT EXISTS outbox_delivery (
+    destination   VARCHAR(255) NOT NULL,
+    event_id      BIGINT       NOT NULL REFERENCES outbox_event (id) ON DELETE CASCADE,
+    claimed_until TIMESTAMP    NOT NULL,
+    delivered_at  TIMESTAMP,
+    PRIMARY KEY (destination, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_delivery_event ON outbox_delivery (event_id);
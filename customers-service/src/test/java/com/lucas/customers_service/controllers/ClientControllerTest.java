@@ -6,6 +6,7 @@ import com.lucas.customers_service.exeptions.ResourceNotFoundException;
 import com.lucas.customers_service.model.dtos.ClientRequest;
 import com.lucas.customers_service.model.dtos.ClientResponse;
 import com.lucas.customers_service.model.entities.Client;
+import com.lucas.customers_service.services.ClientResponseCache;
 import com.lucas.customers_service.services.ClientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,10 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -120,40 +125,69 @@ class ClientControllerTest {
     }
 
     @Test
-    void testGetClientByIdReturnsClient() {
+    void testGetClientByIdReturnsClient() throws Exception {
         Long clientId = 1L;
-        ClientResponse expectedClient = new ClientResponse(clientId, "Jose","Male", 23,"1234244","Calle 34", "123765767","password",true );
+        ClientResponse expectedClient = new ClientResponse(clientId, "Jose","Male", 23,"1234244","Calle 34", "123765767","password",true, 0L);
 
-        when(clientService.getClientById(clientId)).thenReturn(expectedClient);
+        when(clientService.getClientJsonById(clientId))
+                .thenReturn(new ClientResponseCache.Entry(new ObjectMapper().writeValueAsBytes(expectedClient), 0L));
 
-        ResponseEntity<ClientResponse> response = clientController.getClientById(clientId);
+        ResponseEntity<byte[]> response = clientController.getClientById(clientId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"0\"", response.getHeaders().getETag());
         assertNotNull(response.getBody());
-        assertEquals("Jose", response.getBody().getName());
-        assertEquals("Male", response.getBody().getGender());
-        assertEquals(23, response.getBody().getAge());
-        assertEquals("1234244", response.getBody().getIdentification());
-        assertEquals("Calle 34", response.getBody().getAddress());
-        assertEquals("123765767", response.getBody().getPhoneNumber());
-        assertEquals("password", response.getBody().getPassword());
-
-        verify(clientService).getClientById(clientId);
+        ClientResponse body = new ObjectMapper().readValue(response.getBody(), ClientResponse.class);
+        assertEquals("Jose", body.getName());
+        assertEquals("Male", body.getGender());
+        assertEquals(23, body.getAge());
+        assertEquals("1234244", body.getIdentification());
+        assertEquals("Calle 34", body.getAddress());
+        assertEquals("123765767", body.getPhoneNumber());
+        assertEquals("password", body.getPassword());
+
+        verify(clientService).getClientJsonById(clientId);
     }
 
     @Test
     void testGetClientByIdThrowsResourceNotFoundExceptionWhenNotFound() {
         Long nonexistentId = 99L;
 
-        when(clientService.getClientById(nonexistentId))
+        when(clientService.getClientJsonById(nonexistentId))
                 .thenThrow(new ResourceNotFoundException("Account not found with id: " + nonexistentId));
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
-            clientController.getClientById(nonexistentId);
+            clientController.getClientById(nonexistentId, null);
         });
 
         assertEquals("Account not found with id: 99", exception.getMessage());
-        verify(clientService).getClientById(nonexistentId);
+        verify(clientService).getClientJsonById(nonexistentId);
+    }
+
+    @Test
+    void testGetClientByIdReturnsNotModifiedWithoutLoadingClient() {
+        when(clientService.findClientVersion(1L)).thenReturn(Optional.of(3L));
+
+        ResponseEntity<byte[]> response = clientController.getClientById(1L, "\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(clientService, never()).getClientJsonById(anyLong());
+    }
+
+    @Test
+    void testGetClientByIdReturnsBodyWhenETagIsOutdated() throws Exception {
+        ClientResponse client = new ClientResponse(1L, "Jose","Male", 23,"1234244","Calle 34", "123765767","password",true, 4L);
+        when(clientService.findClientVersion(1L)).thenReturn(Optional.of(4L));
+        when(clientService.getClientJsonById(1L))
+                .thenReturn(new ClientResponseCache.Entry(new ObjectMapper().writeValueAsBytes(client), 4L));
+
+        ResponseEntity<byte[]> response = clientController.getClientById(1L, "\"3\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
     }
 
     @Test
@@ -255,13 +289,24 @@ class ClientControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void testGetClientsByIdsReturnsClientList() {
+        Set<Long> ids = Set.of(1L, 2L);
+        List<ClientResponse> clients = List.of(
+                new ClientResponse(1L, "Jose","Male", 23,"1234244","Calle 34", "123765767","password",true, 0L),
+                new ClientResponse(2L, "Maria","Female", 31,"5551234","Calle 12", "099123456","password",true, 0L)
+        );
 
+        when(clientService.getClientsByIds(ids)).thenReturn(clients);
 
+        ResponseEntity<List<ClientResponse>> response = clientController.searchClientsByIds(ids);
 
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertEquals("Maria", response.getBody().get(1).getName());
 
-
-
-
-
+        verify(clientService).getClientsByIds(ids);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.lucas.customers_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.customers_service.model.dtos.ChangeEvent;
+import com.lucas.customers_service.model.entities.OutboxEvent;
+import com.lucas.customers_service.repositories.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private static final String DESTINATION = InMemoryEventPublisher.DESTINATION;
+    private static final String DOWN = "http://accounts-service:8083/api/eventos";
+    private static final String UP = "http://transactions-service:8080/api/eventos";
+
+    private OutboxRepository outboxRepository;
+    private InMemoryEventPublisher eventPublisher;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        eventPublisher = new InMemoryEventPublisher();
+        outboxRelay = new OutboxRelay(outboxRepository, eventPublisher, new OutboxProperties(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper());
+    }
+
+    @Test
+    void testPublishBatchPublishesInOrderAndMarksRows() {
+        when(outboxRepository.lockPending(eq(DESTINATION), eq(100), any())).thenReturn(List.of(
+                event(1L, ChangeEvent.UPSERTED, "{\"clientId\":3,\"name\":\"Juan\"}"),
+                event(2L, ChangeEvent.DELETED, "{\"clientId\":3}")));
+
+        int published = outboxRelay.publishBatch(DESTINATION);
+
+        assertEquals(2, published);
+        List<ChangeEvent> events = eventPublisher.getPublished();
+        assertEquals(List.of(1L, 2L), events.stream().map(ChangeEvent::getSequence).toList());
+        assertEquals("Juan", events.get(0).getPayload().get("name").asText());
+        var inOrder = inOrder(outboxRepository);
+        inOrder.verify(outboxRepository).claim(eq(DESTINATION), eq(List.of(1L, 2L)), any());
+        inOrder.verify(outboxRepository).markDelivered(eq(DESTINATION), eq(List.of(1L, 2L)), any());
+        inOrder.verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), eq(List.of(DESTINATION)), any());
+    }
+
+    @Test
+    void testFailedPublishReleasesTheClaimAndLeavesRowsPending() {
+        when(outboxRepository.lockPending(eq(DESTINATION), eq(100), any()))
+                .thenReturn(List.of(event(1L, ChangeEvent.UPSERTED, "{}")));
+        eventPublisher.subscribe(events -> {
+            throw new IllegalStateException("Connection refused");
+        });
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.publishBatch(DESTINATION));
+
+        verify(outboxRepository).releaseClaims(DESTINATION, List.of(1L));
+        verify(outboxRepository, never()).markDelivered(any(), any(), any());
+        verify(outboxRepository, never()).markPublished(any(), any(), any());
+    }
+
+    @Test
+    void testFailingEndpointDoesNotHoldBackTheOthers() {
+        EventPublisher httpPublisher = mock(EventPublisher.class);
+        when(httpPublisher.destinations()).thenReturn(List.of(DOWN, UP));
+        doThrow(new IllegalStateException("Connection refused")).when(httpPublisher).publish(eq(DOWN), anyList());
+        when(outboxRepository.lockPending(anyString(), eq(100), any()))
+                .thenReturn(List.of(event(1L, ChangeEvent.UPSERTED, "{}")));
+        outboxRelay = new OutboxRelay(outboxRepository, httpPublisher, new OutboxProperties(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper());
+
+        outboxRelay.relay();
+
+        verify(outboxRepository, timeout(1000)).markDelivered(eq(UP), eq(List.of(1L)), any());
+        verify(outboxRepository, timeout(1000)).markPublished(eq(List.of(1L)), eq(List.of(DOWN, UP)), any());
+        verify(outboxRepository, timeout(1000)).releaseClaims(DOWN, List.of(1L));
+        verify(outboxRepository, never()).markDelivered(eq(DOWN), any(), any());
+    }
+
+    private OutboxEvent event(Long id, String type, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(ChangeEvent.CLIENT)
+                .aggregateId(3L)
+                .type(type)
+                .payload(payload)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.lucas.customers_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.customers_service.exeptions.ResourceNotFoundException;
+import com.lucas.customers_service.model.dtos.ClientResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ClientResponseCache clientResponseCache = new ClientResponseCache(objectMapper, new ClientCacheProperties());
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, ClientResponse> loader = id -> {
+        loads.incrementAndGet();
+        return new ClientResponse(id, "Jose", "Male", 23, "1234244", "Calle 34", "123765767", "password", true, 3L);
+    };
+
+    @Test
+    void testHitIsServedWithoutLoadingAgain() throws Exception {
+        ClientResponseCache.Entry first = clientResponseCache.get(1L, loader);
+        ClientResponseCache.Entry second = clientResponseCache.get(1L, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("Jose", objectMapper.readValue(first.body(), ClientResponse.class).getName());
+        assertEquals(3L, first.version());
+    }
+
+    @Test
+    void testVersionIsOnlyKnownForCachedClients() {
+        assertTrue(clientResponseCache.findVersion(1L).isEmpty());
+
+        clientResponseCache.get(1L, loader);
+
+        assertEquals(Optional.of(3L), clientResponseCache.findVersion(1L));
+    }
+
+    @Test
+    void testInvalidatedClientIsLoadedAgain() {
+        clientResponseCache.get(1L, loader);
+
+        clientResponseCache.invalidateAfterCommit(1L);
+        clientResponseCache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidationWaitsForCommit() {
+        clientResponseCache.get(1L, loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            clientResponseCache.invalidateAfterCommit(1L);
+            clientResponseCache.get(1L, loader);
+            assertEquals(1, loads.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        clientResponseCache.get(1L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testMissingClientIsNotCached() {
+        Function<Long, ClientResponse> missing = id -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("Client not found with id: " + id);
+        };
+
+        assertThrows(ResourceNotFoundException.class, () -> clientResponseCache.get(99L, missing));
+        assertThrows(ResourceNotFoundException.class, () -> clientResponseCache.get(99L, missing));
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,24 @@
+package com.lucas.customers_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void testOfJoinsVersionsIntoQuotedTag() {
+        assertEquals("\"3\"", ETags.of(3L));
+        assertEquals("\"3.7\"", ETags.of(3L, 7L));
+        assertNull(ETags.of(3L, null));
+    }
+
+    @Test
+    void testMatchesAnyListedTagIgnoringWeakPrefix() {
+        assertTrue(ETags.matches("\"2\", \"3\"", "\"3\""));
+        assertTrue(ETags.matches("W/\"3\"", "\"3\""));
+        assertTrue(ETags.matches("*", "\"3\""));
+        assertFalse(ETags.matches("\"2\"", "\"3\""));
+        assertFalse(ETags.matches("\"3\"", null));
+    }
+}
@@ -0,0 +1,29 @@
+package com.lucas.customers_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationPropertiesTest {
+
+    private final PaginationProperties paginationProperties = new PaginationProperties();
+
+    @Test
+    void shouldUseDefaultSizeWhenNoneIsGiven() {
+        assertEquals(50, paginationProperties.resolve(null));
+    }
+
+    @Test
+    void shouldCapSizeAtMaxSize() {
+        assertEquals(20, paginationProperties.resolve(20));
+        assertEquals(500, paginationProperties.resolve(10_000));
+    }
+
+    @Test
+    void shouldRejectSizeBelowOne() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> paginationProperties.resolve(0));
+
+        assertEquals("Page size must be greater than zero", exception.getMessage());
+    }
+}
@@ -0,0 +1,42 @@
+package com.lucas.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Request factory for the JSON endpoints the harness calls.
+ */
+final class Api {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper;
+
+    Api(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    HttpRequest post(String url, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize request body", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.lucas.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Machine-readable summary of a run: the configuration plus, per thread mode and ledger setting,
+ * throughput and latency percentiles (milliseconds) for each operation during the measurement phase.
+ */
+final class LoadReport {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectNode root;
+    private final ArrayNode runs;
+
+    LoadReport(ObjectMapper objectMapper, LoadTestConfig config) {
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.root = this.objectMapper.createObjectNode();
+        root.put("startedAt", Instant.now().toString());
+
+        ObjectNode settings = root.putObject("config");
+        settings.put("rate", config.rate());
+        settings.put("warmup", config.warmup().toString());
+        settings.put("duration", config.duration().toString());
+        settings.put("clients", config.clients());
+        settings.put("accountsPerClient", config.accountsPerClient());
+        settings.put("movementsPerAccount", config.movementsPerAccount());
+        settings.put("maxInFlight", config.maxInFlight());
+        settings.put("seed", config.seed());
+        settings.put("hotAccount", config.hotAccount());
+        settings.set("mix", this.objectMapper.valueToTree(config.mix()));
+        settings.set("serviceJvmArgs", this.objectMapper.valueToTree(config.serviceJvmArgs()));
+
+        this.runs = root.putArray("runs");
+    }
+
+    void addRun(String mode, int ledgerShards, Seeder.SeedData data, Duration duration,
+                Map<String, OperationStats> stats) {
+        ObjectNode run = runs.addObject();
+        run.put("mode", mode);
+        run.put("ledgerShards", ledgerShards);
+        run.put("clients", data.clientIds().size());
+        run.put("accounts", data.accountNumbers().size());
+
+        ObjectNode operations = run.putObject("operations");
+        double seconds = duration.toMillis() / 1000.0;
+        long totalSuccesses = 0;
+
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            ObjectNode node = operations.putObject(entry.getKey());
+            node.put("successes", operation.successes());
+            node.put("errors", operation.errors());
+            node.put("dropped", operation.dropped());
+            node.put("throughputPerSecond", round(operation.successes() / seconds));
+            node.put("p50Ms", round(operation.percentileMillis(50)));
+            node.put("p99Ms", round(operation.percentileMillis(99)));
+            node.put("p999Ms", round(operation.percentileMillis(99.9)));
+            node.put("maxMs", round(operation.maxMillis()));
+            totalSuccesses += operation.successes();
+        }
+        run.put("throughputPerSecond", round(totalSuccesses / seconds));
+    }
+
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("report.json");
+        objectMapper.writeValue(file.toFile(), root);
+        return file;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
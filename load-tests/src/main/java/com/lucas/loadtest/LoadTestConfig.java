@@ -0,0 +1,100 @@
+package com.lucas.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings for one load-test run, read from {@code loadtest.*} system properties so they can be
+ * overridden with {@code -D} on the Maven command line.
+ */
+record LoadTestConfig(
+        Path customersJar,
+        Path accountsJar,
+        Path transactionsJar,
+        Path output,
+        List<String> modes,
+        List<Integer> ledgerShards,
+        long hotAccount,
+        String postgresImage,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        int customersPort,
+        int accountsPort,
+        int transactionsPort,
+        List<String> serviceJvmArgs,
+        int clients,
+        int accountsPerClient,
+        int movementsPerAccount,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Map<String, Integer> mix,
+        int maxInFlight,
+        long seed) {
+
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL_THREADS = "virtual-threads";
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Path.of(required("loadtest.customers-jar")),
+                Path.of(required("loadtest.accounts-jar")),
+                Path.of(required("loadtest.transactions-jar")),
+                Path.of(property("loadtest.output", "target/load-tests")),
+                list(property("loadtest.modes", PLATFORM + "," + VIRTUAL_THREADS)),
+                list(property("loadtest.ledger-shards", "0")).stream().map(Integer::parseInt).toList(),
+                Long.parseLong(property("loadtest.hot-account", "1")),
+                property("loadtest.postgres-image", "postgres:15.2"),
+                property("loadtest.jdbc-url", null),
+                property("loadtest.jdbc-username", "user"),
+                property("loadtest.jdbc-password", "1234"),
+                Integer.parseInt(property("loadtest.customers-port", "18082")),
+                Integer.parseInt(property("loadtest.accounts-port", "18083")),
+                Integer.parseInt(property("loadtest.transactions-port", "18080")),
+                list(property("loadtest.service-jvm-args", "-Xms512m,-Xmx512m")),
+                Integer.parseInt(property("loadtest.clients", "200")),
+                Integer.parseInt(property("loadtest.accounts-per-client", "2")),
+                Integer.parseInt(property("loadtest.movements-per-account", "50")),
+                Integer.parseInt(property("loadtest.rate", "200")),
+                Duration.parse(property("loadtest.warmup", "PT30S")),
+                Duration.parse(property("loadtest.duration", "PT2M")),
+                mix(property("loadtest.mix", "create-movement:40,get-account:25,list-movements:15,report:10,statement:10")),
+                Integer.parseInt(property("loadtest.max-in-flight", "5000")),
+                Long.parseLong(property("loadtest.seed", "42")));
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Missing system property " + name);
+        }
+        return value;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static List<String> list(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty()).toList();
+    }
+
+    // "name:weight,name:weight" -> ordered weights.
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : list(value)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,75 @@
+package com.lucas.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the three services against a local Postgres and drives a mixed workload at a fixed rate,
+ * once per thread mode ({@code platform}, {@code virtual-threads}) and ledger setting
+ * ({@code loadtest.ledger-shards}, 0 for a single balance row), writing {@code report.json} to
+ * {@code loadtest.output}. Needs no network beyond localhost once the Postgres image is cached (set
+ * {@code TESTCONTAINERS_RYUK_DISABLED=true} if the Ryuk image is not), or no Docker at all with
+ * {@code -Dloadtest.jdbc-url=jdbc:postgresql://localhost:5432/postgres}.
+ *
+ * <pre>
+ * mvn -Pload-test -pl load-tests -am verify -DskipTests -Dloadtest.rate=300 -Dloadtest.duration=PT5M
+ *
+ * # Contention on one hot account, single row against 8 shards
+ * mvn -Pload-test -pl load-tests -am verify -DskipTests -Dloadtest.modes=virtual-threads \
+ *     -Dloadtest.mix=hot-movement:100 -Dloadtest.ledger-shards=0,8 -Dloadtest.rate=1000
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Api api = new Api(objectMapper);
+        LoadReport report = new LoadReport(objectMapper, config);
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        try (PostgresDatabase database = PostgresDatabase.start(config)) {
+            for (String mode : config.modes()) {
+                for (int ledgerShards : config.ledgerShards()) {
+                    String run = ledgerShards > 0 ? mode + "-shards-" + ledgerShards : mode;
+                    Path logDir = config.output().resolve(run);
+
+                    try (ServiceStack stack = ServiceStack.start(config, database, mode, ledgerShards, logDir, http)) {
+                        Seeder seeder = new Seeder(http, api, objectMapper, config.seed());
+                        Seeder.SeedData data = seeder.seed(config, stack);
+
+                        Workload workload = new Workload(api, seeder, stack, data, config.mix(), config.hotAccount(),
+                                config.seed());
+                        OpenLoopDriver driver = new OpenLoopDriver(http, workload, config.rate(), config.maxInFlight());
+
+                        driver.run(run + " warmup", config.warmup());
+                        Map<String, OperationStats> stats = driver.run(run + " measurement", config.duration());
+                        report.addRun(mode, ledgerShards, data, config.duration(), stats);
+                    }
+                }
+            }
+        }
+
+        log.info("Load test report written to {}", report.write(config.output()));
+    }
+}
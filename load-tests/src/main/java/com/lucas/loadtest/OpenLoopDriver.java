@@ -0,0 +1,89 @@
+package com.lucas.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate regardless of how fast the services answer (open loop), so
+ * a slow service shows up as latency instead of silently lowering the offered load. Requests that
+ * would exceed {@code loadtest.max-in-flight} are counted as dropped.
+ */
+final class OpenLoopDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoopDriver.class);
+
+    private final HttpClient http;
+    private final Workload workload;
+    private final int rate;
+    private final int maxInFlight;
+
+    OpenLoopDriver(HttpClient http, Workload workload, int rate, int maxInFlight) {
+        this.http = http;
+        this.workload = workload;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+    }
+
+    Map<String, OperationStats> run(String phase, Duration duration) throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        workload.operations().forEach(operation -> stats.put(operation, new OperationStats()));
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        log.info("Running {} for {} at {} req/s", phase, duration, rate);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                parkUntil(intendedStart);
+
+                Workload.Request request = workload.next();
+                OperationStats operationStats = stats.get(request.operation());
+                if (!inFlight.tryAcquire()) {
+                    operationStats.recordDropped();
+                    continue;
+                }
+
+                executor.submit(() -> {
+                    try {
+                        HttpResponse<Void> response = http.send(request.httpRequest(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 == 2) {
+                            operationStats.recordSuccess(System.nanoTime() - intendedStart);
+                        } else {
+                            operationStats.recordError();
+                        }
+                    } catch (Exception e) {
+                        operationStats.recordError();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        return stats;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
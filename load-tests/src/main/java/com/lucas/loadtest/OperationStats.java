@@ -0,0 +1,52 @@
+package com.lucas.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcome counters for one operation during one phase. Latency is measured from the
+ * time the request was scheduled to be sent, not from when it was actually sent.
+ */
+final class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void recordSuccess(long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    long successes() {
+        return latencies.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.lucas.loadtest;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Postgres server shared by the three services, one database each. Uses a Testcontainers instance
+ * unless {@code loadtest.jdbc-url} points at an existing server (any database on it, e.g. postgres).
+ */
+final class PostgresDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String adminUrl;
+    private final String username;
+    private final String password;
+
+    private PostgresDatabase(PostgreSQLContainer<?> container, String adminUrl, String username, String password) {
+        this.container = container;
+        this.adminUrl = adminUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static PostgresDatabase start(LoadTestConfig config) {
+        if (config.jdbcUrl() != null) {
+            return new PostgresDatabase(null, config.jdbcUrl(), config.jdbcUsername(), config.jdbcPassword());
+        }
+
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>(DockerImageName.parse(config.postgresImage())
+                .asCompatibleSubstituteFor("postgres"));
+        container.start();
+        return new PostgresDatabase(container, container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    String urlFor(String database) {
+        String withoutQuery = adminUrl.contains("?") ? adminUrl.substring(0, adminUrl.indexOf('?')) : adminUrl;
+        return withoutQuery.substring(0, withoutQuery.lastIndexOf('/') + 1) + database;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String password() {
+        return password;
+    }
+
+    // Every mode starts from empty databases so the runs are comparable.
+    void recreate(String... databases) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            for (String database : databases) {
+                statement.execute("DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+                statement.execute("CREATE DATABASE " + database);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
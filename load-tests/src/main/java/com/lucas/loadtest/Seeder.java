@@ -0,0 +1,153 @@
+package com.lucas.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads clients, accounts and movements through the public APIs, so seeding exercises the same code
+ * (outbox, ledger, read model) as the workload does.
+ */
+final class Seeder {
+
+    private static final Logger log = LoggerFactory.getLogger(Seeder.class);
+
+    private static final int PARALLELISM = 32;
+    private static final int MOVEMENT_BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 500;
+    static final LocalDate HISTORY_START = LocalDate.now().minusDays(365);
+
+    record SeedData(List<Long> clientIds, List<Long> accountNumbers) {
+    }
+
+    private final HttpClient http;
+    private final Api api;
+    private final ObjectMapper objectMapper;
+    private final Random random;
+
+    Seeder(HttpClient http, Api api, ObjectMapper objectMapper, long seed) {
+        this.http = http;
+        this.api = api;
+        this.objectMapper = objectMapper;
+        this.random = new Random(seed);
+    }
+
+    SeedData seed(LoadTestConfig config, ServiceStack stack) throws Exception {
+        List<Callable<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < config.clients(); i++) {
+            Map<String, Object> client = new LinkedHashMap<>();
+            client.put("name", "Cliente " + i);
+            client.put("gender", i % 2 == 0 ? "F" : "M");
+            client.put("age", 18 + i % 60);
+            client.put("identification", String.format("%010d", i));
+            client.put("address", "Calle " + i);
+            client.put("phoneNumber", "09" + String.format("%08d", i));
+            client.put("password", "secret");
+            clients.add(call(api.post(stack.customersUrl() + "/api/clientes", client)));
+        }
+        runAll(clients);
+        List<Long> clientIds = collectIds(stack.customersUrl() + "/api/clientes", "id");
+        log.info("Seeded {} clients", clientIds.size());
+
+        List<Callable<Void>> accounts = new ArrayList<>();
+        for (Long clientId : clientIds) {
+            for (int i = 0; i < config.accountsPerClient(); i++) {
+                Map<String, Object> account = new LinkedHashMap<>();
+                account.put("accountType", i % 2 == 0 ? "Ahorros" : "Corriente");
+                account.put("initialBalance", 100_000.0);
+                account.put("clientId", clientId);
+                accounts.add(call(api.post(stack.accountsUrl() + "/api/cuentas", account)));
+            }
+        }
+        runAll(accounts);
+        List<Long> accountNumbers = collectIds(stack.accountsUrl() + "/api/cuentas", "accountNumber");
+        log.info("Seeded {} accounts", accountNumbers.size());
+
+        List<Callable<Void>> movements = new ArrayList<>();
+        List<Map<String, Object>> batch = new ArrayList<>(MOVEMENT_BATCH_SIZE);
+        for (Long accountNumber : accountNumbers) {
+            for (int i = 0; i < config.movementsPerAccount(); i++) {
+                batch.add(movement(accountNumber, HISTORY_START.plusDays(random.nextInt(365))));
+                if (batch.size() == MOVEMENT_BATCH_SIZE) {
+                    movements.add(call(api.post(stack.transactionsUrl() + "/api/movimientos/batch", List.copyOf(batch))));
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            movements.add(call(api.post(stack.transactionsUrl() + "/api/movimientos/batch", List.copyOf(batch))));
+        }
+        runAll(movements);
+        log.info("Seeded {} movements", (long) accountNumbers.size() * config.movementsPerAccount());
+
+        return new SeedData(clientIds, accountNumbers);
+    }
+
+    // Mostly deposits so withdrawals never run into the balance check.
+    Map<String, Object> movement(Long accountNumber, LocalDate date) {
+        boolean deposit = random.nextInt(4) != 0;
+        int amount = 1 + random.nextInt(deposit ? 500 : 100);
+
+        Map<String, Object> movement = new LinkedHashMap<>();
+        movement.put("date", date.toString());
+        movement.put("accountNumber", accountNumber);
+        movement.put("type", deposit ? "Deposito" : "Retiro");
+        movement.put("state", true);
+        movement.put("transactionAmount", deposit ? amount : -amount);
+        return movement;
+    }
+
+    private Callable<Void> call(HttpRequest request) {
+        return () -> {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                        + response.statusCode() + ": " + response.body());
+            }
+            return null;
+        };
+    }
+
+    private void runAll(List<Callable<Void>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+        try {
+            for (Future<Void> future : executor.invokeAll(calls)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> collectIds(String url, String idField) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            String pageUrl = url + "?size=" + PAGE_SIZE + (cursor == null ? "" : "&cursor=" + cursor);
+            HttpResponse<byte[]> response = http.send(api.get(pageUrl), HttpResponse.BodyHandlers.ofByteArray());
+            for (JsonNode item : objectMapper.readTree(response.body())) {
+                ids.add(item.get(idField).asLong());
+            }
+            cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (cursor != null);
+
+        return ids;
+    }
+}
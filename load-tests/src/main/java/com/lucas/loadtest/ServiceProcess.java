@@ -0,0 +1,95 @@
+package com.lucas.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service running from its executable jar in a child JVM, so each service gets its own heap,
+ * thread pools and connection pool just like in production.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceProcess.class);
+
+    private final String name;
+    private final Process process;
+    private final Path logFile;
+    private final int port;
+
+    private ServiceProcess(String name, Process process, Path logFile, int port) {
+        this.name = name;
+        this.process = process;
+        this.logFile = logFile;
+        this.port = port;
+    }
+
+    static ServiceProcess start(String name, Path jar, int port, List<String> jvmArgs,
+                                Map<String, String> properties, Path logDir) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found; build with -am so the services are packaged first");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Files.createDirectories(logDir);
+        Path logFile = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+
+        log.info("Started {} on port {} (pid {}), logging to {}", name, port, process.pid(), logFile);
+        return new ServiceProcess(name, process, logFile, port);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    void awaitReady(HttpClient http, String path, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl() + path)).timeout(Duration.ofSeconds(2)).build();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                if (http.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} is ready", name);
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " was not ready after " + timeout + ", see " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lucas.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The three services wired to each other on localhost, started with or without the virtual-threads
+ * profile, and with the hot account's balance in a single row or split over {@code ledgerShards} rows.
+ * Databases are recreated for every run, so account numbers start at 1 and the hot account exists
+ * as soon as the accounts are seeded.
+ */
+final class ServiceStack implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final ServiceProcess customers;
+    private final ServiceProcess accounts;
+    private final ServiceProcess transactions;
+
+    private ServiceStack(ServiceProcess customers, ServiceProcess accounts, ServiceProcess transactions) {
+        this.customers = customers;
+        this.accounts = accounts;
+        this.transactions = transactions;
+    }
+
+    static ServiceStack start(LoadTestConfig config, PostgresDatabase database, String mode, int ledgerShards,
+                              Path logDir, HttpClient http) throws Exception {
+        database.recreate("ms_customers", "ms_accounts", "ms_transactions");
+
+        String customersUrl = "http://localhost:" + config.customersPort();
+        String accountsUrl = "http://localhost:" + config.accountsPort();
+        String transactionsUrl = "http://localhost:" + config.transactionsPort();
+
+        Map<String, String> customersProperties = common(config, database, mode, "ms_customers", config.customersPort());
+        customersProperties.put("outbox.http.endpoints", accountsUrl + "/api/eventos," + transactionsUrl + "/api/eventos");
+
+        Map<String, String> accountsProperties = common(config, database, mode, "ms_accounts", config.accountsPort());
+        accountsProperties.put("feign.client.customers-service.url", customersUrl);
+        accountsProperties.put("outbox.http.endpoints", transactionsUrl + "/api/eventos");
+
+        Map<String, String> transactionsProperties = common(config, database, mode, "ms_transactions", config.transactionsPort());
+        transactionsProperties.put("feign.client.accounts-service.url", accountsUrl);
+        transactionsProperties.put("read-model.rebuild-on-startup", "false");
+        if (ledgerShards > 0) {
+            transactionsProperties.put("ledger.sharding.accounts", String.valueOf(config.hotAccount()));
+            transactionsProperties.put("ledger.sharding.shards", String.valueOf(ledgerShards));
+        }
+
+        ServiceProcess customers = ServiceProcess.start("customers-service", config.customersJar(),
+                config.customersPort(), config.serviceJvmArgs(), customersProperties, logDir);
+        ServiceProcess accounts = ServiceProcess.start("accounts-service", config.accountsJar(),
+                config.accountsPort(), config.serviceJvmArgs(), accountsProperties, logDir);
+        ServiceProcess transactions = ServiceProcess.start("transactions-service", config.transactionsJar(),
+                config.transactionsPort(), config.serviceJvmArgs(), transactionsProperties, logDir);
+        ServiceStack stack = new ServiceStack(customers, accounts, transactions);
+
+        try {
+            customers.awaitReady(http, "/api/clientes?size=1", STARTUP_TIMEOUT);
+            accounts.awaitReady(http, "/api/cuentas?size=1", STARTUP_TIMEOUT);
+            transactions.awaitReady(http, "/api/movimientos?size=1", STARTUP_TIMEOUT);
+            return stack;
+        } catch (Exception e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    String customersUrl() {
+        return customers.baseUrl();
+    }
+
+    String accountsUrl() {
+        return accounts.baseUrl();
+    }
+
+    String transactionsUrl() {
+        return transactions.baseUrl();
+    }
+
+    private static Map<String, String> common(LoadTestConfig config, PostgresDatabase database, String mode,
+                                              String databaseName, int port) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", String.valueOf(port));
+        properties.put("spring.datasource.url", database.urlFor(databaseName));
+        properties.put("spring.datasource.username", database.username());
+        properties.put("spring.datasource.password", database.password());
+        if (LoadTestConfig.VIRTUAL_THREADS.equals(mode)) {
+            properties.put("spring.profiles.active", LoadTestConfig.VIRTUAL_THREADS);
+        }
+        return properties;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        transactions.close();
+        accounts.close();
+        customers.close();
+    }
+}
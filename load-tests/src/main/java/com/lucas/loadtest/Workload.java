@@ -0,0 +1,94 @@
+package com.lucas.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the operations the harness drives. Only the scheduler thread calls
+ * {@link #next()}, so a single seeded {@link Random} keeps runs reproducible.
+ */
+final class Workload {
+
+    static final String CREATE_MOVEMENT = "create-movement";
+    static final String GET_ACCOUNT = "get-account";
+    static final String LIST_MOVEMENTS = "list-movements";
+    static final String REPORT = "report";
+    static final String STATEMENT = "statement";
+    // Movements that all hit loadtest.hot-account, to measure contention on a single balance.
+    static final String HOT_MOVEMENT = "hot-movement";
+
+    record Request(String operation, HttpRequest httpRequest) {
+    }
+
+    private final Api api;
+    private final Seeder seeder;
+    private final ServiceStack stack;
+    private final Seeder.SeedData data;
+    private final long hotAccount;
+    private final Random random;
+    private final List<String> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    Workload(Api api, Seeder seeder, ServiceStack stack, Seeder.SeedData data, Map<String, Integer> mix,
+             long hotAccount, long seed) {
+        this.api = api;
+        this.seeder = seeder;
+        this.stack = stack;
+        this.data = data;
+        this.hotAccount = hotAccount;
+        this.random = new Random(seed);
+        this.cumulativeWeights = new int[mix.size()];
+
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            if (!List.of(CREATE_MOVEMENT, GET_ACCOUNT, LIST_MOVEMENTS, REPORT, STATEMENT, HOT_MOVEMENT).contains(entry.getKey())) {
+                throw new IllegalArgumentException("Unknown operation in loadtest.mix: " + entry.getKey());
+            }
+            total += entry.getValue();
+            cumulativeWeights[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("loadtest.mix needs at least one positive weight");
+        }
+    }
+
+    List<String> operations() {
+        return List.copyOf(operations);
+    }
+
+    Request next() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (pick >= cumulativeWeights[index]) {
+            index++;
+        }
+
+        String operation = operations.get(index);
+        return new Request(operation, build(operation));
+    }
+
+    private HttpRequest build(String operation) {
+        Long accountNumber = data.accountNumbers().get(random.nextInt(data.accountNumbers().size()));
+        LocalDate from = Seeder.HISTORY_START.plusDays(random.nextInt(358));
+
+        return switch (operation) {
+            case CREATE_MOVEMENT -> api.post(stack.transactionsUrl() + "/api/movimientos",
+                    seeder.movement(accountNumber, LocalDate.now()));
+            case HOT_MOVEMENT -> api.post(stack.transactionsUrl() + "/api/movimientos",
+                    seeder.movement(hotAccount, LocalDate.now()));
+            case GET_ACCOUNT -> api.get(stack.accountsUrl() + "/api/cuentas/" + accountNumber);
+            case LIST_MOVEMENTS -> api.get(stack.transactionsUrl() + "/api/movimientos?size=50");
+            case REPORT -> api.get(stack.transactionsUrl() + "/api/movimientos/reportes?startDate=" + from
+                    + "&endDate=" + from.plusDays(7));
+            case STATEMENT -> api.get(stack.transactionsUrl() + "/api/movimientos/estado-cuenta?accountNumber="
+                    + accountNumber + "&startDate=" + Seeder.HISTORY_START + "&endDate=" + LocalDate.now()
+                    + "&period=MONTHLY");
+            default -> throw new IllegalStateException(operation);
+        };
+    }
+}
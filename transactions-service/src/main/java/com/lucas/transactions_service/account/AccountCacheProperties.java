@@ -0,0 +1,23 @@
+package com.lucas.transactions_service.account;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.accounts")
+public class AccountCacheProperties {
+
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // How long an account may still be served after accounts-service stops answering.
+    private Duration staleTtl = Duration.ofMinutes(10);
+
+    // Cache misses are fetched in batches of this size, with up to `parallelism` batches in flight across all lookups.
+    private int batchSize = 200;
+    private int parallelism = 4;
+}
@@ -0,0 +1,265 @@
+package com.lucas.transactions_service.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import feign.FeignException;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache in front of {@link AccountTransaction}. Entries expire after
+ * {@code cache.accounts.ttl} and can be evicted explicitly when accounts-service reports a change.
+ * Bulk misses are split into batches that are fetched concurrently, so a lookup takes as long as
+ * the slowest batch rather than the sum of all of them. Remote calls go through the
+ * {@code accounts-service} bulkhead, circuit breaker and retry; when they fail, the last response
+ * seen within {@code cache.accounts.stale-ttl} is served instead. That response also keeps its ETag, so
+ * an expired account is revalidated and only downloaded again if it changed.
+ */
+@Slf4j
+@Component
+@Observed(name = "service.method")
+public class AccountLookup implements MeterBinder {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final String ACCOUNTS_SERVICE = "accounts-service";
+
+    private final AccountTransaction accountTransaction;
+    private final Cache<Long, AccountResponse> accounts;
+    private final Cache<Long, KnownAccount> lastKnown;
+    private final ObjectMapper objectMapper;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    // Batches run on other threads; carry the caller's observation over so their Feign calls stay in
+    // the same trace as the request that triggered them.
+    private final ExecutorService executor = ContextExecutorService.wrap(
+            Executors.newVirtualThreadPerTaskExecutor(), ContextSnapshotFactory.builder().build());
+    private final int batchSize;
+    // Shared by every lookup, so concurrent reports together never have more than `parallelism`
+    // batches in flight against accounts-service.
+    private final Semaphore batchPermits;
+
+    public AccountLookup(AccountTransaction accountTransaction, AccountCacheProperties properties, ObjectMapper objectMapper,
+                         BulkheadRegistry bulkheadRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+                         RetryRegistry retryRegistry) {
+        this.accountTransaction = accountTransaction;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.min(properties.getBatchSize(), MAX_BATCH_SIZE);
+        this.batchPermits = new Semaphore(properties.getParallelism());
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getStaleTtl())
+                .recordStats()
+                .build();
+        this.bulkhead = bulkheadRegistry.bulkhead(ACCOUNTS_SERVICE);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(ACCOUNTS_SERVICE);
+        this.retry = retryRegistry.retry(ACCOUNTS_SERVICE);
+    }
+
+    public AccountResponse getAccountById(Long id) {
+        return accounts.get(id, this::loadAccount);
+    }
+
+    public Map<Long, AccountResponse> getAccountsByIds(Set<Long> ids) {
+        return accounts.getAll(ids, this::loadAccounts);
+    }
+
+    public void evict(Long id) {
+        accounts.invalidate(id);
+        lastKnown.invalidate(id);
+    }
+
+    public void evict(Collection<Long> ids) {
+        accounts.invalidateAll(ids);
+        lastKnown.invalidateAll(ids);
+    }
+
+    public void evictAll() {
+        accounts.invalidateAll();
+        lastKnown.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return accounts.stats();
+    }
+
+    // Publishes cache_gets{result=hit|miss}, evictions and size so hit ratios show up next to the
+    // Feign client timers; a rising last-known hit count means stale fallbacks are being served.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accounts, "accounts");
+        CaffeineCacheMetrics.monitor(registry, lastKnown, "accounts.last-known");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private AccountResponse loadAccount(Long id) {
+        KnownAccount known = lastKnown.getIfPresent(id);
+        try {
+            KnownAccount current = call(() -> fetchAccount(id, known));
+            lastKnown.put(id, current);
+            return current.account();
+
+        } catch (FeignException.NotFound e) {
+            lastKnown.invalidate(id);
+            throw e;
+
+        } catch (RuntimeException e) {
+            if (known == null) {
+                throw e;
+            }
+            log.warn("Serving last known account {} because accounts-service failed: {}", id, e.toString());
+            return known.account();
+        }
+    }
+
+    // Sends the ETag of the last response, if any; a 304 means that response is still current.
+    private KnownAccount fetchAccount(Long id, KnownAccount known) {
+        try (Response response = accountTransaction.getAccountById(id, known == null ? null : known.etag())) {
+            if (known != null && response.status() == HttpStatus.NOT_MODIFIED.value()) {
+                return known;
+            }
+            if (response.status() < 200 || response.status() >= 300) {
+                throw FeignException.errorStatus("AccountTransaction#getAccountById(Long,String)", response);
+            }
+
+            AccountResponse account = objectMapper.readValue(response.body().asInputStream(), AccountResponse.class);
+            String etag = response.headers().getOrDefault(HttpHeaders.ETAG, List.of()).stream()
+                    .findFirst()
+                    .orElse(null);
+            return new KnownAccount(account, etag);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read account " + id + " from accounts-service", e);
+        }
+    }
+
+    private Map<Long, AccountResponse> loadAccounts(Set<? extends Long> ids) {
+        try {
+            Map<Long, AccountResponse> loaded = fetchInBatches(ids);
+            loaded.forEach((id, account) -> lastKnown.put(id, new KnownAccount(account, null)));
+            return loaded;
+
+        } catch (RuntimeException e) {
+            Map<Long, AccountResponse> stale = new HashMap<>();
+            lastKnown.getAllPresent(ids).forEach((id, known) -> stale.put(id, known.account()));
+            if (stale.size() < ids.size()) {
+                throw e;
+            }
+            log.warn("Serving {} last known accounts because accounts-service failed: {}", stale.size(), e.toString());
+            return stale;
+        }
+    }
+
+    private Map<Long, AccountResponse> fetchInBatches(Set<? extends Long> ids) {
+        List<Long> pending = new ArrayList<>(ids);
+        if (pending.size() <= batchSize) {
+            return fetch(new HashSet<>(pending));
+        }
+
+        // Cancelling the futures would not stop their tasks, so chunks check this flag instead and
+        // skip their call once any chunk of the lookup has failed.
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Map<Long, AccountResponse>>> batches = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            Set<Long> chunk = new HashSet<>(pending.subList(from, Math.min(from + batchSize, pending.size())));
+            batches.add(CompletableFuture.supplyAsync(() -> fetchWithPermit(chunk, failed), executor));
+        }
+
+        Map<Long, AccountResponse> loaded = new HashMap<>();
+        for (CompletableFuture<Map<Long, AccountResponse>> batch : batches) {
+            try {
+                loaded.putAll(batch.join());
+            } catch (CompletionException e) {
+                failed.set(true);
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        return loaded;
+    }
+
+    // Checked again once the permit is held, as the lookup may have failed while this chunk waited for it.
+    private Map<Long, AccountResponse> fetchWithPermit(Set<Long> chunk, AtomicBoolean failed) {
+        if (failed.get()) {
+            return Map.of();
+        }
+        batchPermits.acquireUninterruptibly();
+        try {
+            if (failed.get()) {
+                return Map.of();
+            }
+            return fetch(chunk);
+        } catch (RuntimeException e) {
+            failed.set(true);
+            throw e;
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private Map<Long, AccountResponse> fetch(Set<Long> chunk) {
+        Map<Long, AccountResponse> loaded = new HashMap<>();
+        call(() -> accountTransaction.getAccountsByIds(chunk))
+                .forEach(account -> loaded.put(account.getAccountNumber(), account));
+        return loaded;
+    }
+
+    // Retry wraps the breaker so every attempt is counted, and the breaker wraps the bulkhead so
+    // rejected calls never reach the remote service.
+    private <T> T call(Supplier<T> remote) {
+        return Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker,
+                        Bulkhead.decorateSupplier(bulkhead, remote))).get();
+    }
+
+    private record KnownAccount(AccountResponse account, String etag) {
+    }
+}
@@ -1,13 +1,32 @@
 package com.lucas.transactions_service.account;
 
 import com.lucas.transactions_service.model.dtos.AccountResponse;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "accounts-service", url = "http://accounts-service:8083")
+import java.util.List;
+import java.util.Set;
+
+@FeignClient(name = "accounts-service", url = "${feign.client.accounts-service.url}")
 public interface AccountTransaction {
 
+    @GetMapping("/api/cuentas")
+    ResponseEntity<List<AccountResponse>> getAccounts(@RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam("size") Integer size);
+
+    // Raw response, so a 304 reaches AccountLookup instead of being turned into an error.
     @GetMapping("/api/cuentas/{id}")
-    AccountResponse getAccountById(@PathVariable("id") Long id);
+    Response getAccountById(@PathVariable("id") Long id,
+                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @PostMapping("/api/cuentas/batch")
+    List<AccountResponse> getAccountsByIds(@RequestBody Set<Long> ids);
 }
@@ -0,0 +1,29 @@
+package com.lucas.transactions_service.controllers;
+
+import com.lucas.transactions_service.model.dtos.BalanceRangeRequest;
+import com.lucas.transactions_service.model.dtos.BalanceRequest;
+import com.lucas.transactions_service.model.dtos.BalanceResponse;
+import com.lucas.transactions_service.services.DailyBalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/movimientos/saldos")
+@RequiredArgsConstructor
+public class BalanceController {
+
+    private final DailyBalanceService dailyBalanceService;
+
+    @GetMapping
+    public ResponseEntity<BalanceResponse> getBalance(@ModelAttribute BalanceRequest balanceRequest) {
+        return ResponseEntity.ok(dailyBalanceService.getBalance(balanceRequest));
+    }
+
+    @GetMapping("/diarios")
+    public ResponseEntity<List<BalanceResponse>> getDailyBalances(@ModelAttribute BalanceRangeRequest balanceRangeRequest) {
+        return ResponseEntity.ok(dailyBalanceService.getDailyBalances(balanceRangeRequest));
+    }
+}
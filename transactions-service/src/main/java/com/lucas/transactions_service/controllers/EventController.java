@@ -0,0 +1,30 @@
+package com.lucas.transactions_service.controllers;
+
+import com.lucas.transactions_service.model.dtos.ChangeEvent;
+import com.lucas.transactions_service.services.AccountViewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/eventos")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final AccountViewService accountViewService;
+
+    @PostMapping
+    public ResponseEntity<Void> receiveEvents(@RequestBody List<ChangeEvent> events) {
+        accountViewService.apply(events);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        int accounts = accountViewService.rebuild();
+        return ResponseEntity.ok(Map.of("accounts", accounts));
+    }
+}
@@ -0,0 +1,24 @@
+package com.lucas.transactions_service.controllers;
+
+import com.lucas.transactions_service.model.dtos.TransactionBatchResult;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.services.TransactionBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/movimientos/batch")
+@RequiredArgsConstructor
+public class TransactionBatchController {
+
+    private final TransactionBatchService transactionBatchService;
+
+    @PostMapping
+    public ResponseEntity<List<TransactionBatchResult>> addTransactions(@RequestBody List<TransactionRequest> transactionRequests) {
+        List<TransactionBatchResult> results = transactionBatchService.addTransactions(transactionRequests);
+        return ResponseEntity.ok(results);
+    }
+}
@@ -1,14 +1,19 @@
 package com.lucas.transactions_service.controllers;
 
+import com.lucas.transactions_service.model.dtos.CursorPage;
 import com.lucas.transactions_service.model.dtos.ReportRequest;
+import com.lucas.transactions_service.model.dtos.StatementRequest;
+import com.lucas.transactions_service.model.dtos.StatementResponse;
 import com.lucas.transactions_service.model.dtos.TransactionRequest;
 import com.lucas.transactions_service.model.dtos.TransactionResponse;
 import com.lucas.transactions_service.model.entities.Transaction;
 import com.lucas.transactions_service.services.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,19 +23,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionService transactionService;
 
     @PostMapping
-    public ResponseEntity<Void> addTransaction(@RequestBody TransactionRequest transactionRequest) {
-        transactionService.addTransaction(transactionRequest);
+    public ResponseEntity<Void> addTransaction(@RequestBody TransactionRequest transactionRequest,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        transactionService.addTransaction(transactionRequest, idempotencyKey);
 
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping
-    public ResponseEntity<List<TransactionResponse>> getAllTransactions() {
-        List<TransactionResponse> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<List<TransactionResponse>> getAllTransactions(@RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
+        CursorPage<TransactionResponse> transactions = transactionService.getAllTransactions(cursor, size);
+        return withNextCursor(transactions);
     }
 
     @DeleteMapping("/{id}")
@@ -53,4 +62,29 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping(value = "/reportes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReportsBetweenDates(@ModelAttribute ReportRequest dates) {
+
+        transactionService.validateReportRange(dates);
+        StreamingResponseBody body = outputStream -> transactionService.streamReportsBetweenDates(dates, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/estado-cuenta")
+    public ResponseEntity<List<StatementResponse>> getStatement(@ModelAttribute StatementRequest statementRequest) {
+
+        List<StatementResponse> statement = transactionService.getStatement(statementRequest);
+
+        return ResponseEntity.ok(statement);
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(CursorPage<T> page) {
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
 }
@@ -0,0 +1,7 @@
+package com.lucas.transactions_service.exeptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
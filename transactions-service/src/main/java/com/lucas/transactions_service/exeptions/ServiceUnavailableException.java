@@ -0,0 +1,7 @@
+package com.lucas.transactions_service.exeptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
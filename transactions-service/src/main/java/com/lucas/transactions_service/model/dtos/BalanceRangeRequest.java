@@ -0,0 +1,18 @@
+package com.lucas.transactions_service.model.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceRangeRequest {
+    private Long accountNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,17 @@
+package com.lucas.transactions_service.model.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BalanceRequest {
+    private Long accountNumber;
+    private LocalDate date;
+}
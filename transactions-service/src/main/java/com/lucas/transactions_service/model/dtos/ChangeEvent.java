@@ -0,0 +1,33 @@
+package com.lucas.transactions_service.model.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change notification published by accounts-service ({@link #ACCOUNT}) or customers-service
+ * ({@link #CLIENT}). {@code sequence} grows monotonically per producer.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeEvent {
+
+    public static final String ACCOUNT = "ACCOUNT";
+    public static final String CLIENT = "CLIENT";
+
+    public static final String UPSERTED = "UPSERTED";
+    public static final String DELETED = "DELETED";
+
+    private Long sequence;
+    private String aggregateType;
+    private Long aggregateId;
+    private String type;
+    private JsonNode payload;
+    private LocalDateTime occurredAt;
+}
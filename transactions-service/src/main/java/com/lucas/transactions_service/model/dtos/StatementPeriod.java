@@ -0,0 +1,15 @@
+package com.lucas.transactions_service.model.dtos;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatementPeriod {
+    DAILY("day"),
+    MONTHLY("month"),
+    RANGE("range");
+
+    // Unit passed to date_trunc; RANGE collapses the whole interval into one row.
+    private final String unit;
+}
@@ -0,0 +1,19 @@
+package com.lucas.transactions_service.model.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatementRequest {
+    private Long accountNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private StatementPeriod period;
+}
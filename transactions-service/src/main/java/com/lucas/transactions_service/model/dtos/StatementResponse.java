@@ -0,0 +1,22 @@
+package com.lucas.transactions_service.model.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatementResponse {
+    private Long accountNumber;
+    private LocalDate periodStart;
+    private Integer openingBalance;
+    private Long totalCredits;
+    private Long totalDebits;
+    private Integer closingBalance;
+    private Long movements;
+}
@@ -0,0 +1,24 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.*;
+
+@Entity
+@Table(name = "account_balance")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountBalance {
+    @Id
+    private Long accountNumber;
+
+    private Integer balance;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "account_balance_shard")
+@IdClass(AccountBalanceShardId.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountBalanceShard {
+    @Id
+    private Long accountNumber;
+
+    @Id
+    private Integer shard;
+
+    private Integer balance;
+}
@@ -0,0 +1,15 @@
+package com.lucas.transactions_service.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountBalanceShardId implements Serializable {
+    private Long accountNumber;
+    private Integer shard;
+}
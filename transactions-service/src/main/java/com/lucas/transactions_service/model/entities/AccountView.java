@@ -0,0 +1,34 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local projection of an account owned by accounts-service. {@code sequence} is the sequence of the
+ * last change event applied, so redelivered or out-of-order events never overwrite newer data.
+ */
+@Entity
+@Table(name = "account_view")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountView {
+    @Id
+    private Long accountNumber;
+
+    private Long clientId;
+
+    private Boolean status;
+
+    private Boolean deleted;
+
+    private Long sequence;
+
+    private LocalDateTime syncedAt;
+}
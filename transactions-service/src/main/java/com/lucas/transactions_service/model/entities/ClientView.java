@@ -0,0 +1,32 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local projection of a client owned by customers-service, joined with {@link AccountView} to
+ * resolve client names without a remote call.
+ */
+@Entity
+@Table(name = "client_view")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ClientView {
+    @Id
+    private Long clientId;
+
+    private String name;
+
+    private Boolean deleted;
+
+    private Long sequence;
+
+    private LocalDateTime syncedAt;
+}
@@ -0,0 +1,27 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_balance")
+@IdClass(DailyBalanceId.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DailyBalance {
+    @Id
+    private Long accountNumber;
+
+    @Id
+    private LocalDate day;
+
+    private Long closingBalance;
+}
@@ -0,0 +1,16 @@
+package com.lucas.transactions_service.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyBalanceId implements Serializable {
+    private Long accountNumber;
+    private LocalDate day;
+}
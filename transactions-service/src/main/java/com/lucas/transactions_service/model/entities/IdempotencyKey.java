@@ -0,0 +1,26 @@
+package com.lucas.transactions_service.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    private String requestHash;
+    private Long transactionId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,51 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+
+    @Modifying
+    @Query("update AccountBalance b set b.balance = b.balance + :amount, b.version = b.version + 1 " +
+            "where b.accountNumber = :accountNumber and b.balance + :amount >= 0")
+    int applyIfSufficient(@Param("accountNumber") Long accountNumber, @Param("amount") int amount);
+
+    @Modifying
+    @Query("update AccountBalance b set b.balance = b.balance + :amount, b.version = b.version + 1 " +
+            "where b.accountNumber = :accountNumber")
+    int adjust(@Param("accountNumber") Long accountNumber, @Param("amount") int amount);
+
+    @Modifying
+    @Query(value = "insert into account_balance (account_number, balance, version) " +
+            "values (:accountNumber, :balance, 0) on conflict (account_number) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("accountNumber") Long accountNumber, @Param("balance") int balance);
+
+    @Query("select b.accountNumber from AccountBalance b where b.accountNumber in :accountNumbers")
+    List<Long> findExistingAccountNumbers(@Param("accountNumbers") Collection<Long> accountNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountBalance b where b.accountNumber in :accountNumbers order by b.accountNumber")
+    List<AccountBalance> lockAll(@Param("accountNumbers") Collection<Long> accountNumbers);
+
+    @Query(value = "SELECT balance FROM account_balance WHERE account_number = :accountNumber FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockBalance(@Param("accountNumber") Long accountNumber);
+
+    // Includes the shards of accounts in sharded mode; for every other account their sum is zero.
+    @Query("select cast(b.balance + coalesce((select sum(s.balance) from AccountBalanceShard s " +
+            "where s.accountNumber = b.accountNumber), 0) as Integer) " +
+            "from AccountBalance b where b.accountNumber = :accountNumber")
+    Optional<Integer> findBalance(@Param("accountNumber") Long accountNumber);
+
+    @Query("select b.accountNumber from AccountBalance b where b.accountNumber > :after order by b.accountNumber")
+    List<Long> findAccountNumbersAfter(@Param("after") Long after, Limit limit);
+}
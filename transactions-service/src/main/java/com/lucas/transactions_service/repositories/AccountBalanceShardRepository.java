@@ -0,0 +1,53 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.AccountBalanceShard;
+import com.lucas.transactions_service.model.entities.AccountBalanceShardId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+// Shards are only read and written with statements, never loaded as entities, so no stale copy of a
+// shard can outlive the update that changed it.
+public interface AccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, AccountBalanceShardId> {
+
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance + :amount " +
+            "where s.accountNumber = :accountNumber and s.shard = :shard")
+    int add(@Param("accountNumber") Long accountNumber, @Param("shard") int shard, @Param("amount") int amount);
+
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance + :amount " +
+            "where s.accountNumber = :accountNumber and s.shard = :shard and s.balance + :amount >= 0")
+    int addIfSufficient(@Param("accountNumber") Long accountNumber, @Param("shard") int shard, @Param("amount") int amount);
+
+    @Modifying
+    @Query(value = "INSERT INTO account_balance_shard (account_number, shard, balance) " +
+            "SELECT :accountNumber, s, 0 FROM generate_series(0, :shards - 1) s " +
+            "ON CONFLICT (account_number, shard) DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("accountNumber") Long accountNumber, @Param("shards") int shards);
+
+    @Query(value = "SELECT balance FROM account_balance_shard WHERE account_number = :accountNumber " +
+            "ORDER BY shard FOR UPDATE", nativeQuery = true)
+    List<Integer> lockBalances(@Param("accountNumber") Long accountNumber);
+
+    // Locks the shards of every given account, in account and shard order, and sums them per account.
+    @Query(value = "WITH locked AS (SELECT account_number, balance FROM account_balance_shard " +
+            "WHERE account_number IN (:accountNumbers) ORDER BY account_number, shard FOR UPDATE) " +
+            "SELECT account_number AS accountNumber, sum(balance) AS total FROM locked GROUP BY account_number",
+            nativeQuery = true)
+    List<ShardTotal> lockTotals(@Param("accountNumbers") Collection<Long> accountNumbers);
+
+    // Splits `total` evenly over the first `shards` shards; shards left over from a larger setting are emptied.
+    @Modifying
+    @Query(value = "UPDATE account_balance_shard SET balance = CASE " +
+            "WHEN shard >= :shards THEN 0 " +
+            "WHEN shard < :remainder THEN :share + 1 " +
+            "ELSE :share END " +
+            "WHERE account_number = :accountNumber", nativeQuery = true)
+    int spread(@Param("accountNumber") Long accountNumber, @Param("shards") int shards,
+               @Param("share") int share, @Param("remainder") int remainder);
+}
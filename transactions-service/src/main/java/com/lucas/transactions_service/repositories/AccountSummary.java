@@ -0,0 +1,12 @@
+package com.lucas.transactions_service.repositories;
+
+public interface AccountSummary {
+
+    Long getAccountNumber();
+
+    Long getClientId();
+
+    String getClientName();
+
+    Boolean getStatus();
+}
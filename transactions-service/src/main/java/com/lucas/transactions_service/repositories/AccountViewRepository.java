@@ -0,0 +1,52 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.AccountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountViewRepository extends JpaRepository<AccountView, Long> {
+
+    // Applies a change event only if it is newer than what the row already reflects.
+    @Modifying
+    @Query(value = "insert into account_view (account_number, client_id, status, deleted, sequence, synced_at) " +
+            "values (:accountNumber, :clientId, :status, :deleted, :sequence, :syncedAt) " +
+            "on conflict (account_number) do update set client_id = excluded.client_id, status = excluded.status, " +
+            "deleted = excluded.deleted, sequence = excluded.sequence, synced_at = excluded.synced_at " +
+            "where account_view.sequence < excluded.sequence", nativeQuery = true)
+    int applyChange(@Param("accountNumber") Long accountNumber, @Param("clientId") Long clientId,
+                    @Param("status") Boolean status, @Param("deleted") boolean deleted,
+                    @Param("sequence") Long sequence, @Param("syncedAt") LocalDateTime syncedAt);
+
+    // Like applyChange, a snapshot row only replaces a row no newer event has reached: `sequence` is the
+    // highest one applied when the rebuild started. The row keeps its event sequence.
+    @Modifying
+    @Query(value = "insert into account_view (account_number, client_id, status, deleted, sequence, synced_at) " +
+            "values (:accountNumber, :clientId, :status, false, 0, :syncedAt) " +
+            "on conflict (account_number) do update set client_id = excluded.client_id, status = excluded.status, " +
+            "deleted = false, synced_at = excluded.synced_at " +
+            "where account_view.sequence <= :sequence", nativeQuery = true)
+    int applySnapshot(@Param("accountNumber") Long accountNumber, @Param("clientId") Long clientId,
+                      @Param("status") Boolean status, @Param("sequence") Long sequence,
+                      @Param("syncedAt") LocalDateTime syncedAt);
+
+    @Query("select coalesce(max(a.sequence), 0) from AccountView a")
+    Long findLastSequence();
+
+    @Modifying
+    @Query("delete from AccountView a where a.syncedAt < :syncedAt")
+    int deleteNotSyncedSince(@Param("syncedAt") LocalDateTime syncedAt);
+
+    @Query("select a.accountNumber from AccountView a where a.clientId = :clientId")
+    List<Long> findAccountNumbersByClientId(@Param("clientId") Long clientId);
+
+    @Query("select a.accountNumber as accountNumber, a.clientId as clientId, c.name as clientName, a.status as status " +
+            "from AccountView a join ClientView c on c.clientId = a.clientId " +
+            "where a.accountNumber in :accountNumbers and a.deleted = false and c.deleted = false")
+    List<AccountSummary> findSummaries(@Param("accountNumbers") Collection<Long> accountNumbers);
+}
@@ -0,0 +1,38 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.ClientView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ClientViewRepository extends JpaRepository<ClientView, Long> {
+
+    @Modifying
+    @Query(value = "insert into client_view (client_id, name, deleted, sequence, synced_at) " +
+            "values (:clientId, :name, :deleted, :sequence, :syncedAt) " +
+            "on conflict (client_id) do update set name = excluded.name, deleted = excluded.deleted, " +
+            "sequence = excluded.sequence, synced_at = excluded.synced_at " +
+            "where client_view.sequence < excluded.sequence", nativeQuery = true)
+    int applyChange(@Param("clientId") Long clientId, @Param("name") String name, @Param("deleted") boolean deleted,
+                    @Param("sequence") Long sequence, @Param("syncedAt") LocalDateTime syncedAt);
+
+    // Skips rows a change event newer than `sequence`, the highest applied when the rebuild started, has reached.
+    @Modifying
+    @Query(value = "insert into client_view (client_id, name, deleted, sequence, synced_at) " +
+            "values (:clientId, :name, false, 0, :syncedAt) " +
+            "on conflict (client_id) do update set name = excluded.name, deleted = false, " +
+            "synced_at = excluded.synced_at " +
+            "where client_view.sequence <= :sequence", nativeQuery = true)
+    int applySnapshot(@Param("clientId") Long clientId, @Param("name") String name,
+                      @Param("sequence") Long sequence, @Param("syncedAt") LocalDateTime syncedAt);
+
+    @Query("select coalesce(max(c.sequence), 0) from ClientView c")
+    Long findLastSequence();
+
+    @Modifying
+    @Query("delete from ClientView c where c.syncedAt < :syncedAt")
+    int deleteNotSyncedSince(@Param("syncedAt") LocalDateTime syncedAt);
+}
@@ -0,0 +1,88 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.DailyBalance;
+import com.lucas.transactions_service.model.entities.DailyBalanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalanceId> {
+
+    Optional<DailyBalance> findFirstByAccountNumberAndDayLessThanEqualOrderByDayDesc(Long accountNumber, LocalDate day);
+
+    Optional<DailyBalance> findFirstByAccountNumberAndDayGreaterThanOrderByDayAsc(Long accountNumber, LocalDate day);
+
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:accountNumber)) l", nativeQuery = true)
+    Integer lockAccount(@Param("accountNumber") Long accountNumber);
+
+    // A movement on a given day changes the closing balance of that day and of every later one.
+    @Modifying
+    @Query(value = "UPDATE daily_balance SET closing_balance = closing_balance + :amount " +
+            "WHERE account_number = :accountNumber AND day >= :day", nativeQuery = true)
+    int shift(@Param("accountNumber") Long accountNumber, @Param("day") LocalDate day, @Param("amount") long amount);
+
+    /**
+     * Adds the row for a day that has none yet, derived from the closest earlier row, else the closest
+     * later row, else the ledger balance, plus or minus the movements in between. Existing rows must
+     * already be up to date and the movements flushed.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_balance (account_number, day, closing_balance)
+            SELECT :accountNumber, :day, c.closing_balance
+            FROM (SELECT COALESCE(
+                    (SELECT p.closing_balance + COALESCE((SELECT SUM(m.transaction_amount) FROM movement m
+                                                           WHERE m.account_number = :accountNumber
+                                                             AND m.date > p.day AND m.date <= :day), 0)
+                     FROM daily_balance p
+                     WHERE p.account_number = :accountNumber AND p.day < :day
+                     ORDER BY p.day DESC
+                     LIMIT 1),
+                    (SELECT n.closing_balance - COALESCE((SELECT SUM(m.transaction_amount) FROM movement m
+                                                           WHERE m.account_number = :accountNumber
+                                                             AND m.date > :day AND m.date <= n.day), 0)
+                     FROM daily_balance n
+                     WHERE n.account_number = :accountNumber AND n.day > :day
+                     ORDER BY n.day ASC
+                     LIMIT 1),
+                    (SELECT b.balance
+                            + COALESCE((SELECT SUM(s.balance) FROM account_balance_shard s
+                                        WHERE s.account_number = :accountNumber), 0)
+                            - COALESCE((SELECT SUM(m.transaction_amount) FROM movement m
+                                        WHERE m.account_number = :accountNumber AND m.date > :day), 0)
+                     FROM account_balance b
+                     WHERE b.account_number = :accountNumber)) AS closing_balance) c
+            WHERE c.closing_balance IS NOT NULL
+            ON CONFLICT (account_number, day) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("accountNumber") Long accountNumber, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_balance WHERE account_number = :accountNumber", nativeQuery = true)
+    int deleteByAccount(@Param("accountNumber") Long accountNumber);
+
+    // The window runs over every day, including today's and later ones, before closed days are kept.
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_balance (account_number, day, closing_balance)
+            SELECT :accountNumber, c.date, c.closing_balance
+            FROM (SELECT d.date,
+                         b.balance
+                             + COALESCE((SELECT SUM(s.balance) FROM account_balance_shard s
+                                         WHERE s.account_number = :accountNumber), 0)
+                             - COALESCE(SUM(d.total) OVER (ORDER BY d.date DESC
+                                                           ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0)
+                             AS closing_balance
+                  FROM (SELECT date, SUM(transaction_amount) AS total
+                        FROM movement
+                        WHERE account_number = :accountNumber AND date IS NOT NULL
+                        GROUP BY date) d
+                  JOIN account_balance b ON b.account_number = :accountNumber) c
+            WHERE c.date < :before
+            """, nativeQuery = true)
+    int rebuild(@Param("accountNumber") Long accountNumber, @Param("before") LocalDate before);
+}
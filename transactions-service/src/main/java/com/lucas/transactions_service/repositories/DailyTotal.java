@@ -0,0 +1,8 @@
+package com.lucas.transactions_service.repositories;
+
+import java.time.LocalDate;
+
+public interface DailyTotal {
+    LocalDate getDay();
+    Long getTotal();
+}
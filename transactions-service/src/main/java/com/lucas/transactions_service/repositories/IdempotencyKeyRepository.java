@@ -0,0 +1,27 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Returns 0 when the key is already taken. A concurrent claim of the same key waits on the primary
+    // key until the first transaction ends, so at most one of them goes on to create the movement.
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, request_hash, created_at) " +
+            "VALUES (:key, :requestHash, :createdAt) ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.transactionId = :transactionId where k.key = :key")
+    int complete(@Param("key") String key, @Param("transactionId") Long transactionId);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
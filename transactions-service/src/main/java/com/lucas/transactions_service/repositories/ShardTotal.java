@@ -0,0 +1,6 @@
+package com.lucas.transactions_service.repositories;
+
+public interface ShardTotal {
+    Long getAccountNumber();
+    Long getTotal();
+}
@@ -0,0 +1,11 @@
+package com.lucas.transactions_service.repositories;
+
+import java.time.LocalDate;
+
+public interface StatementLine {
+    Long getAccountNumber();
+    LocalDate getPeriodStart();
+    Long getTotalCredits();
+    Long getTotalDebits();
+    Long getMovements();
+}
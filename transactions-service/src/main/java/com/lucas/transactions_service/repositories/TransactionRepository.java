@@ -1,12 +1,67 @@
 package com.lucas.transactions_service.repositories;
 
 import com.lucas.transactions_service.model.entities.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    List<Transaction> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Optional<Transaction> findFirstByAccountNumberOrderByIdDesc(Long accountNumber);
+
     List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transaction> streamByDateBetweenOrderByIdAsc(LocalDate startDate, LocalDate endDate);
+
+    @Query("select coalesce(sum(t.transactionAmount), 0) from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.date > :after and t.date <= :until")
+    long sumAmountsBetween(@Param("accountNumber") Long accountNumber,
+                           @Param("after") LocalDate after,
+                           @Param("until") LocalDate until);
+
+    @Query("select coalesce(sum(t.transactionAmount), 0) from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.date > :after")
+    long sumAmountsAfter(@Param("accountNumber") Long accountNumber, @Param("after") LocalDate after);
+
+    @Query("select t.date as day, sum(t.transactionAmount) as total from Transaction t " +
+            "where t.accountNumber = :accountNumber and t.date > :after and t.date <= :until " +
+            "group by t.date order by t.date")
+    List<DailyTotal> sumAmountsByDay(@Param("accountNumber") Long accountNumber,
+                                     @Param("after") LocalDate after,
+                                     @Param("until") LocalDate until);
+
+    // Sums per account and period only; the stored per-movement balances are not reliable enough to
+    // open or close a statement, so TransactionService derives those from the ledger.
+    @Query(value = """
+            SELECT m.account_number AS accountNumber,
+                   CAST(CASE WHEN :unit = 'range' THEN CAST(:startDate AS timestamp)
+                             ELSE date_trunc(:unit, CAST(m.date AS timestamp)) END AS date) AS periodStart,
+                   COALESCE(SUM(m.transaction_amount) FILTER (WHERE m.transaction_amount > 0), 0) AS totalCredits,
+                   COALESCE(SUM(m.transaction_amount) FILTER (WHERE m.transaction_amount < 0), 0) AS totalDebits,
+                   COUNT(*) AS movements
+            FROM movement m
+            WHERE (CAST(:accountNumber AS bigint) IS NULL OR m.account_number = :accountNumber)
+              AND m.date BETWEEN :startDate AND :endDate
+            GROUP BY 1, 2
+            ORDER BY 1, 2
+            """, nativeQuery = true)
+    List<StatementLine> summarizeByPeriod(@Param("accountNumber") Long accountNumber,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("unit") String unit);
 }
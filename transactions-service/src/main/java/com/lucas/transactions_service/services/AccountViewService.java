@@ -0,0 +1,162 @@
+package com.lucas.transactions_service.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lucas.transactions_service.account.AccountLookup;
+import com.lucas.transactions_service.account.AccountTransaction;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.ChangeEvent;
+import com.lucas.transactions_service.model.dtos.CursorPage;
+import com.lucas.transactions_service.repositories.AccountSummary;
+import com.lucas.transactions_service.repositories.AccountViewRepository;
+import com.lucas.transactions_service.repositories.ClientViewRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the local account/client projection used by reports. Change events keep it current
+ * incrementally; {@link #rebuild()} reloads it from a full accounts-service snapshot.
+ */
+@Service
+@Observed(name = "service.method")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountViewService {
+
+    private final AccountViewRepository accountViewRepository;
+    private final ClientViewRepository clientViewRepository;
+    private final AccountTransaction accountTransaction;
+    private final AccountLookup accountLookup;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadModelProperties readModelProperties;
+
+    @Transactional(readOnly = true)
+    public Map<Long, String> findClientNames(Set<Long> accountNumbers) {
+        Map<Long, String> clientNames = new HashMap<>();
+        if (accountNumbers.isEmpty()) {
+            return clientNames;
+        }
+
+        for (AccountSummary summary : accountViewRepository.findSummaries(accountNumbers)) {
+            clientNames.put(summary.getAccountNumber(), summary.getClientName());
+        }
+        return clientNames;
+    }
+
+    @Transactional
+    public void apply(List<ChangeEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ChangeEvent event : events) {
+            if (event.getSequence() == null || event.getAggregateId() == null || event.getAggregateType() == null) {
+                throw new IllegalArgumentException("sequence, aggregateType and aggregateId are required");
+            }
+
+            switch (event.getAggregateType()) {
+                case ChangeEvent.ACCOUNT -> applyAccountChange(event, now);
+                case ChangeEvent.CLIENT -> applyClientChange(event, now);
+                default -> log.warn("Ignoring change event {} for unknown aggregate {}",
+                        event.getSequence(), event.getAggregateType());
+            }
+        }
+    }
+
+    public synchronized int rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Events applied from here on carry higher sequences, and the snapshot must not undo them.
+        Long lastAccountSequence = accountViewRepository.findLastSequence();
+        Long lastClientSequence = clientViewRepository.findLastSequence();
+        int synced = 0;
+        String cursor = null;
+
+        do {
+            ResponseEntity<List<AccountResponse>> page =
+                    accountTransaction.getAccounts(cursor, readModelProperties.getSnapshotPageSize());
+            List<AccountResponse> accounts = page.getBody() == null ? List.of() : page.getBody();
+
+            transactionTemplate.executeWithoutResult(status -> accounts.forEach(account ->
+                    applySnapshot(account, lastAccountSequence, lastClientSequence, startedAt)));
+            synced += accounts.size();
+            cursor = page.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accountViewRepository.deleteNotSyncedSince(startedAt);
+            clientViewRepository.deleteNotSyncedSince(startedAt);
+        });
+        accountLookup.evictAll();
+
+        log.info("Rebuilt account projection with {} accounts", synced);
+        return synced;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!readModelProperties.isRebuildOnStartup() || accountViewRepository.count() > 0) {
+            return;
+        }
+
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Could not rebuild the account projection on startup, reports will use accounts-service", e);
+        }
+    }
+
+    private void applyAccountChange(ChangeEvent event, LocalDateTime now) {
+        boolean deleted = ChangeEvent.DELETED.equals(event.getType());
+        JsonNode payload = event.getPayload();
+
+        accountViewRepository.applyChange(
+                event.getAggregateId(),
+                longOrNull(payload, "clientId"),
+                payload != null && payload.path("status").asBoolean(false),
+                deleted,
+                event.getSequence(),
+                now);
+        accountLookup.evict(event.getAggregateId());
+    }
+
+    private void applyClientChange(ChangeEvent event, LocalDateTime now) {
+        boolean deleted = ChangeEvent.DELETED.equals(event.getType());
+        JsonNode payload = event.getPayload();
+
+        clientViewRepository.applyChange(
+                event.getAggregateId(),
+                payload == null ? null : payload.path("name").asText(null),
+                deleted,
+                event.getSequence(),
+                now);
+        accountLookup.evict(accountViewRepository.findAccountNumbersByClientId(event.getAggregateId()));
+    }
+
+    private void applySnapshot(AccountResponse account, Long lastAccountSequence, Long lastClientSequence,
+                               LocalDateTime syncedAt) {
+        Long clientId = account.getClientResponse() == null ? null : account.getClientResponse().getId();
+
+        accountViewRepository.applySnapshot(account.getAccountNumber(), clientId, account.getStatus(),
+                lastAccountSequence, syncedAt);
+        if (clientId != null) {
+            clientViewRepository.applySnapshot(clientId, account.getClientResponse().getName(), lastClientSequence, syncedAt);
+        }
+    }
+
+    private static Long longOrNull(JsonNode payload, String field) {
+        if (payload == null || !payload.hasNonNull(field)) {
+            return null;
+        }
+        return payload.get(field).asLong();
+    }
+}
@@ -0,0 +1,217 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountBalanceRepository;
+import com.lucas.transactions_service.repositories.AccountBalanceShardRepository;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Authoritative running balance per account. Every movement is applied with a single conditional
+ * update, so the row lock taken by that update serializes writers of the same account only, and the
+ * overdraft check cannot be raced. Must run inside the transaction that stores the movement.
+ *
+ * <p>Accounts listed in {@code ledger.sharding.accounts} keep their balance in the balance row plus
+ * {@code ledger.sharding.shards} sub-balances. A movement updates one random shard, debits only where
+ * that shard covers them, so concurrent writers rarely meet on the same row. When no shard can cover a
+ * debit, the balance row and every shard are locked in that order and the total is checked and spread
+ * evenly again. The balance returned for these accounts is the total seen by this transaction, which
+ * may not yet include movements that other writers have not committed.
+ */
+@Service
+@Observed(name = "service.method")
+@RequiredArgsConstructor
+public class BalanceLedger {
+
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final AccountBalanceShardRepository accountBalanceShardRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerShardingProperties ledgerShardingProperties;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int applyMovement(AccountResponse account, int amount) {
+        Long accountNumber = account.getAccountNumber();
+
+        if (ledgerShardingProperties.isSharded(accountNumber)) {
+            applyToShard(accountNumber, account.getInitialBalance(), amount);
+            return currentBalance(accountNumber);
+        }
+
+        applyToBalance(accountNumber, account.getInitialBalance(), amount);
+        return currentBalance(accountNumber);
+    }
+
+    /**
+     * Takes a stored movement back out of the balance. Reversing a credit that has already been spent
+     * would overdraw the account, so it is refused like any other debit the balance cannot cover.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int reverseMovement(Long accountNumber, int amount) {
+        // Taking every lock up front means the movement applied next in the same transaction cannot
+        // deadlock with a concurrent rebalance.
+        if (ledgerShardingProperties.isSharded(accountNumber)) {
+            rebalance(accountNumber, null, -amount, true);
+            return currentBalance(accountNumber);
+        }
+
+        applyToBalance(accountNumber, null, -amount);
+        return currentBalance(accountNumber);
+    }
+
+    /**
+     * Locks the balance rows of both accounts a movement is moved between, in account-number order and
+     * seeding any that do not exist yet, so two edits moving movements in opposite directions cannot
+     * deadlock on each other.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockAccounts(Long previousAccountNumber, AccountResponse account) {
+        SortedMap<Long, Double> initialBalances = new TreeMap<>();
+        initialBalances.put(previousAccountNumber, null);
+        initialBalances.put(account.getAccountNumber(), account.getInitialBalance());
+
+        insertMissing(initialBalances);
+        initialBalances.keySet().forEach(accountBalanceRepository::lockBalance);
+    }
+
+    /**
+     * Locks the balance rows of the given accounts in account-number order, seeding any that do not
+     * exist yet. Changes made to the returned entities are written back when the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, AccountBalance> lockBalances(Map<Long, AccountResponse> accounts) {
+        if (accounts.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        SortedMap<Long, Double> initialBalances = new TreeMap<>();
+        accounts.forEach((accountNumber, account) -> initialBalances.put(accountNumber, account.getInitialBalance()));
+        insertMissing(initialBalances);
+
+        Map<Long, AccountBalance> balances = accountBalanceRepository.lockAll(initialBalances.keySet()).stream()
+                .collect(Collectors.toMap(AccountBalance::getAccountNumber, Function.identity(), (a, b) -> a, HashMap::new));
+
+        // Shards are folded into the locked balance rows, after all of them are held, so the caller
+        // can work on a single row per account. Accounts taken out of ledger.sharding.accounts may
+        // still have shards, so every account is folded, not only the configured ones.
+        accountBalanceShardRepository.lockTotals(balances.keySet()).stream()
+                .filter(shardTotal -> shardTotal.getTotal() != 0)
+                .forEach(shardTotal -> {
+                    // Spreading over zero shards empties all of them.
+                    accountBalanceShardRepository.spread(shardTotal.getAccountNumber(), 0, 0, 0);
+                    AccountBalance balance = balances.get(shardTotal.getAccountNumber());
+                    balance.setBalance(balance.getBalance() + Math.toIntExact(shardTotal.getTotal()));
+                });
+
+        return balances;
+    }
+
+    // Missing rows are inserted, in account-number order, before any row is locked. An insert holds
+    // its new row until commit, so inserting after the locks were taken would hold rows out of order
+    // and two batches could deadlock on each other.
+    private void insertMissing(SortedMap<Long, Double> initialBalances) {
+        Set<Long> existing = new HashSet<>(accountBalanceRepository.findExistingAccountNumbers(initialBalances.keySet()));
+        initialBalances.forEach((accountNumber, initialBalance) -> {
+            if (!existing.contains(accountNumber)) {
+                accountBalanceRepository.insertIfAbsent(accountNumber, openingBalance(accountNumber, initialBalance));
+            }
+        });
+    }
+
+    private void applyToBalance(Long accountNumber, Double initialBalance, int amount) {
+        if (accountBalanceRepository.applyIfSufficient(accountNumber, amount) == 0) {
+            accountBalanceRepository.insertIfAbsent(accountNumber, openingBalance(accountNumber, initialBalance));
+            foldShards(accountNumber);
+
+            if (accountBalanceRepository.applyIfSufficient(accountNumber, amount) == 0) {
+                throw new InsufficientBalanceException("Saldo no disponible");
+            }
+        }
+    }
+
+    // An account taken out of ledger.sharding.accounts keeps its shards, which may hold its whole
+    // balance, so they are moved back into the balance row before a debit is refused.
+    private void foldShards(Long accountNumber) {
+        accountBalanceRepository.lockBalance(accountNumber);
+        int shardTotal = accountBalanceShardRepository.lockBalances(accountNumber).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (shardTotal != 0) {
+            accountBalanceShardRepository.spread(accountNumber, 0, 0, 0);
+            accountBalanceRepository.adjust(accountNumber, shardTotal);
+        }
+    }
+
+    private void applyToShard(Long accountNumber, Double initialBalance, int amount) {
+        int shards = ledgerShardingProperties.getShards();
+        int first = ThreadLocalRandom.current().nextInt(shards);
+
+        if (amount >= 0) {
+            if (accountBalanceShardRepository.add(accountNumber, first, amount) == 0) {
+                seedShards(accountNumber, initialBalance);
+                accountBalanceShardRepository.add(accountNumber, first, amount);
+            }
+            return;
+        }
+
+        for (int i = 0; i < shards; i++) {
+            if (accountBalanceShardRepository.addIfSufficient(accountNumber, (first + i) % shards, amount) == 1) {
+                return;
+            }
+        }
+
+        rebalance(accountNumber, initialBalance, amount, true);
+    }
+
+    // Moves the whole balance, with `amount` applied, into the shards, leaving the balance row at zero.
+    private void rebalance(Long accountNumber, Double initialBalance, int amount, boolean checkFunds) {
+        seedShards(accountNumber, initialBalance);
+
+        int base = accountBalanceRepository.lockBalance(accountNumber)
+                .orElseThrow(() -> new IllegalStateException("No balance for account " + accountNumber));
+        int total = base + amount + accountBalanceShardRepository.lockBalances(accountNumber).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+
+        if (checkFunds && total < 0) {
+            throw new InsufficientBalanceException("Saldo no disponible");
+        }
+
+        int shards = ledgerShardingProperties.getShards();
+        accountBalanceRepository.adjust(accountNumber, -base);
+        accountBalanceShardRepository.spread(accountNumber, shards, Math.floorDiv(total, shards), Math.floorMod(total, shards));
+    }
+
+    private void seedShards(Long accountNumber, Double initialBalance) {
+        accountBalanceRepository.insertIfAbsent(accountNumber, openingBalance(accountNumber, initialBalance));
+        accountBalanceShardRepository.insertMissing(accountNumber, ledgerShardingProperties.getShards());
+    }
+
+    private int currentBalance(Long accountNumber) {
+        return accountBalanceRepository.findBalance(accountNumber)
+                .orElseThrow(() -> new IllegalStateException("No balance for account " + accountNumber));
+    }
+
+    // Accounts that already have movements start from the last recorded balance.
+    private int openingBalance(Long accountNumber, Double initialBalance) {
+        return transactionRepository.findFirstByAccountNumberOrderByIdDesc(accountNumber)
+                .map(Transaction::getAvailableBalance)
+                .orElseGet(() -> initialBalance == null ? 0 : (int) Math.round(initialBalance));
+    }
+}
@@ -0,0 +1,14 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "daily-balance")
+public class DailyBalanceProperties {
+
+    private int compactionPageSize = 500;
+    private int maxRangeDays = 366;
+}
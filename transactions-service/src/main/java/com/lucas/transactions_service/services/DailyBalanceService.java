@@ -0,0 +1,212 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.ResourceNotFoundException;
+import com.lucas.transactions_service.model.dtos.BalanceRangeRequest;
+import com.lucas.transactions_service.model.dtos.BalanceRequest;
+import com.lucas.transactions_service.model.dtos.BalanceResponse;
+import com.lucas.transactions_service.model.entities.DailyBalance;
+import com.lucas.transactions_service.model.entities.DailyBalanceId;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountBalanceRepository;
+import com.lucas.transactions_service.repositories.AccountBalanceShardRepository;
+import com.lucas.transactions_service.repositories.DailyBalanceRepository;
+import com.lucas.transactions_service.repositories.DailyTotal;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * End-of-day balance snapshots of closed days. Writers of backdated movements keep {@code daily_balance}
+ * up to date in the transaction that stores the movement, a nightly job rebuilds it from the movements,
+ * and reads start from the nearest snapshot so they only add up the movements between that day and the
+ * requested one. Today's movements never touch a snapshot, so hot accounts do not contend on one.
+ */
+@Service
+@Observed(name = "service.method")
+@RequiredArgsConstructor
+@Slf4j
+public class DailyBalanceService {
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final AccountBalanceShardRepository accountBalanceShardRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DailyBalanceProperties dailyBalanceProperties;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMovement(Long accountNumber, LocalDate date, long amount) {
+        Map<DailyBalanceId, Long> changes = new LinkedHashMap<>();
+        changes.put(new DailyBalanceId(accountNumber, date), amount);
+        recordChanges(changes);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMovements(Collection<Transaction> transactions) {
+        recordChanges(transactions.stream().collect(Collectors.toMap(
+                transaction -> new DailyBalanceId(transaction.getAccountNumber(), transaction.getDate()),
+                transaction -> (long) transaction.getTransactionAmount(),
+                Long::sum,
+                LinkedHashMap::new)));
+    }
+
+    /**
+     * Applies the net amount booked per account and closed day. Must run after the ledger update and in
+     * the same transaction. Sharded accounts have no single balance row lock, so maintainers of the same
+     * account are serialized with a transaction-scoped advisory lock, taken in account order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Map<DailyBalanceId, Long> changes) {
+        var pending = changes.entrySet().stream()
+                .filter(change -> change.getKey().getAccountNumber() != null && change.getKey().getDay() != null)
+                .filter(change -> change.getKey().getDay().isBefore(LocalDate.now()))
+                .filter(change -> change.getValue() != 0)
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Missing rows are derived from the movement table, so it has to reflect this transaction first.
+        transactionRepository.flush();
+        pending.stream()
+                .map(change -> change.getKey().getAccountNumber())
+                .distinct()
+                .sorted()
+                .forEach(dailyBalanceRepository::lockAccount);
+
+        // Every existing row is shifted before any row is added; rows added afterwards already include
+        // all the changes and must not be shifted again.
+        pending.forEach(change -> dailyBalanceRepository.shift(
+                change.getKey().getAccountNumber(), change.getKey().getDay(), change.getValue()));
+        pending.forEach(change -> dailyBalanceRepository.insertIfAbsent(
+                change.getKey().getAccountNumber(), change.getKey().getDay()));
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceResponse getBalance(BalanceRequest balanceRequest) {
+        if (balanceRequest.getAccountNumber() == null || balanceRequest.getDate() == null) {
+            throw new IllegalArgumentException("Account number and date are required");
+        }
+
+        return BalanceResponse.builder()
+                .accountNumber(balanceRequest.getAccountNumber())
+                .date(balanceRequest.getDate())
+                .balance(balanceAt(balanceRequest.getAccountNumber(), balanceRequest.getDate()))
+                .build();
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<BalanceResponse> getDailyBalances(BalanceRangeRequest balanceRangeRequest) {
+        Long accountNumber = balanceRangeRequest.getAccountNumber();
+        LocalDate startDate = balanceRangeRequest.getStartDate();
+        LocalDate endDate = balanceRangeRequest.getEndDate();
+
+        if (accountNumber == null || startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Account number, start date and end date are required");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= dailyBalanceProperties.getMaxRangeDays()) {
+            throw new IllegalArgumentException("Date range cannot exceed " + dailyBalanceProperties.getMaxRangeDays() + " days");
+        }
+
+        Map<LocalDate, Long> totals = transactionRepository.sumAmountsByDay(accountNumber, startDate, endDate).stream()
+                .collect(Collectors.toMap(DailyTotal::getDay, DailyTotal::getTotal));
+
+        List<BalanceResponse> balances = new ArrayList<>();
+        long balance = balanceAt(accountNumber, startDate);
+
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            balance += totals.getOrDefault(day, 0L);
+            balances.add(BalanceResponse.builder()
+                    .accountNumber(accountNumber)
+                    .date(day)
+                    .balance(balance)
+                    .build());
+        }
+
+        return balances;
+    }
+
+    @Scheduled(cron = "${daily-balance.compaction-cron:0 30 2 * * *}")
+    public void compact() {
+        int pageSize = dailyBalanceProperties.getCompactionPageSize();
+        long after = Long.MIN_VALUE;
+        int rebuilt = 0;
+        List<Long> accountNumbers;
+
+        do {
+            accountNumbers = accountBalanceRepository.findAccountNumbersAfter(after, Limit.of(pageSize));
+            for (Long accountNumber : accountNumbers) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> rebuild(accountNumber));
+                    rebuilt++;
+                } catch (Exception e) {
+                    log.warn("Could not rebuild daily balances of account {}: {}", accountNumber, e.toString());
+                }
+            }
+            if (!accountNumbers.isEmpty()) {
+                after = accountNumbers.get(accountNumbers.size() - 1);
+            }
+        } while (accountNumbers.size() == pageSize);
+
+        log.info("Rebuilt daily balances of {} accounts", rebuilt);
+    }
+
+    // Locks the balance row and shards in ledger order, so no movement of the account commits mid-rebuild.
+    private void rebuild(Long accountNumber) {
+        accountBalanceRepository.lockBalance(accountNumber);
+        accountBalanceShardRepository.lockBalances(accountNumber);
+        dailyBalanceRepository.deleteByAccount(accountNumber);
+        dailyBalanceRepository.rebuild(accountNumber, LocalDate.now());
+    }
+
+    /**
+     * Balance of the account at the end of {@code date}, from the nearest snapshot or, without one, from
+     * the ledger minus the movements booked after that day. Unlike the balances stored on each movement,
+     * this accounts for movements booked later with an earlier date.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long balanceAt(Long accountNumber, LocalDate date) {
+        var previous = dailyBalanceRepository.findFirstByAccountNumberAndDayLessThanEqualOrderByDayDesc(accountNumber, date);
+        if (previous.isPresent()) {
+            DailyBalance snapshot = previous.get();
+            return snapshot.getClosingBalance()
+                    + transactionRepository.sumAmountsBetween(accountNumber, snapshot.getDay(), date);
+        }
+
+        var next = dailyBalanceRepository.findFirstByAccountNumberAndDayGreaterThanOrderByDayAsc(accountNumber, date);
+        if (next.isPresent()) {
+            DailyBalance snapshot = next.get();
+            return snapshot.getClosingBalance()
+                    - transactionRepository.sumAmountsBetween(accountNumber, date, snapshot.getDay());
+        }
+
+        return currentBalance(accountNumber) - transactionRepository.sumAmountsAfter(accountNumber, date);
+    }
+
+    private long currentBalance(Long accountNumber) {
+        return accountBalanceRepository.findBalance(accountNumber)
+                .or(() -> transactionRepository.findFirstByAccountNumberOrderByIdDesc(accountNumber)
+                        .map(Transaction::getAvailableBalance))
+                .orElseThrow(() -> new ResourceNotFoundException("No movements found for account " + accountNumber));
+    }
+}
@@ -0,0 +1,27 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "movements.group-commit")
+public class GroupCommitProperties {
+
+    // Off by default: every movement is then written and committed by the request thread itself.
+    private boolean enabled = false;
+
+    // A batch is flushed once it holds `maxBatchSize` movements or `maxDelay` after its first one arrived.
+    private int maxBatchSize = 200;
+    private Duration maxDelay = Duration.ofMillis(5);
+
+    // Movements waiting for a flush; requests beyond this are turned away with a 503.
+    private int queueCapacity = 10_000;
+
+    // How long a movement may wait in the queue for the writer before its request is answered with a
+    // 503. Once the writer has taken it, the request waits for the commit however long that takes.
+    private Duration submitTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,20 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    // In-memory front of the idempotency_key table, sized for the keys retried within `ttl`.
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // How long keys are kept in the table; retries after that create a new movement.
+    private Duration retention = Duration.ofHours(24);
+}
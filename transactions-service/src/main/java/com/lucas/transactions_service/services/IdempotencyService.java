@@ -0,0 +1,154 @@
+package com.lucas.transactions_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lucas.transactions_service.exeptions.IdempotencyConflictException;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.IdempotencyKey;
+import com.lucas.transactions_service.repositories.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.annotation.Observed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dedup store for {@code Idempotency-Key} headers. Completed keys are answered from a bounded
+ * in-memory cache, falling back to the {@code idempotency_key} table, whose primary key guarantees
+ * that only one request per key creates a movement. Reusing a key with a different body is a conflict.
+ */
+@Slf4j
+@Service
+@Observed(name = "service.method")
+public class IdempotencyService implements MeterBinder {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IdempotencyKey> completed;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, IdempotencyProperties properties,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Hash of the fields the movement is stored with. Balances sent by the client are ignored on insert,
+     * so a retry that only differs in them is the same request.
+     */
+    public String hash(TransactionRequest transactionRequest) {
+        List<Object> persisted = Arrays.asList(
+                transactionRequest.getDate(),
+                transactionRequest.getAccountNumber(),
+                transactionRequest.getType(),
+                transactionRequest.getState(),
+                transactionRequest.getTransactionAmount());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(persisted));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash transaction request", e);
+        }
+    }
+
+    /**
+     * Id of the movement already created for this key, if any. Only reads; a key that is not found
+     * still has to be claimed inside the transaction that creates the movement.
+     */
+    public Optional<Long> findCompleted(String key, String requestHash) {
+        validate(key);
+
+        IdempotencyKey known = completed.getIfPresent(key);
+        if (known == null) {
+            known = idempotencyKeyRepository.findById(key)
+                    .filter(stored -> stored.getTransactionId() != null)
+                    .orElse(null);
+            if (known == null) {
+                return Optional.empty();
+            }
+            completed.put(key, known);
+        }
+
+        return Optional.of(matching(known, requestHash).getTransactionId());
+    }
+
+    /**
+     * Reserves the key for the current transaction. Returns empty when the caller should go on and
+     * create the movement, or the id of the movement a concurrent request already created for it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Long> claim(String key, String requestHash) {
+        if (idempotencyKeyRepository.claim(key, requestHash, LocalDateTime.now()) == 1) {
+            return Optional.empty();
+        }
+
+        IdempotencyKey stored = idempotencyKeyRepository.findById(key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key " + key + " vanished while claiming it"));
+        return Optional.of(matching(stored, requestHash).getTransactionId());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String key, Long transactionId) {
+        idempotencyKeyRepository.complete(key, transactionId);
+    }
+
+    // Called once the creating transaction has committed, so the cache never holds a rolled back key.
+    public void remember(String key, String requestHash, Long transactionId) {
+        completed.put(key, IdempotencyKey.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .transactionId(transactionId)
+                .build());
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        Integer purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(before));
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, completed, "idempotency-keys");
+    }
+
+    private IdempotencyKey matching(IdempotencyKey stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency key was already used with a different request");
+        }
+        return stored;
+    }
+
+    private void validate(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+}
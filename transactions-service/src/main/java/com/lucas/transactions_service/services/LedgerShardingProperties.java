@@ -0,0 +1,22 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ledger.sharding")
+public class LedgerShardingProperties {
+
+    // Hot accounts whose balance is split over `shards` rows so concurrent movements do not queue on one lock.
+    private Set<Long> accounts = new HashSet<>();
+    private int shards = 8;
+
+    public boolean isSharded(Long accountNumber) {
+        return accounts.contains(accountNumber);
+    }
+}
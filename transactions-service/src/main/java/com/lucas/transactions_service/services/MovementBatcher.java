@@ -0,0 +1,280 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.lucas.transactions_service.exeptions.ServiceUnavailableException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for single movements. When enabled, request threads hand their movement to a queue and
+ * wait; one writer thread drains it and stores up to {@code maxBatchSize} movements with a single JDBC
+ * batch and a single commit. Callers are answered only after that commit, so a returned id is as
+ * durable as one written by the request thread itself.
+ */
+@Slf4j
+@Service
+public class MovementBatcher implements MeterBinder {
+
+    private final TransactionRepository transactionRepository;
+    private final BalanceLedger balanceLedger;
+    private final DailyBalanceService dailyBalanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingMovement> queue;
+
+    private volatile boolean running;
+    private volatile DistributionSummary batchSizes;
+    private Thread writer;
+
+    public MovementBatcher(TransactionRepository transactionRepository, BalanceLedger balanceLedger,
+                           DailyBalanceService dailyBalanceService, TransactionTemplate transactionTemplate,
+                           GroupCommitProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.balanceLedger = balanceLedger;
+        this.dailyBalanceService = dailyBalanceService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("movement-batcher").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<PendingMovement> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.result().completeExceptionally(
+                new ServiceUnavailableException("Service is shutting down", null)));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues the movement and blocks until the batch holding it has committed. Returns the id of the
+     * stored movement, or rethrows what made it fail, e.g. an {@link InsufficientBalanceException}.
+     * A movement still queued after {@code submitTimeout} is taken back out of the queue and answered
+     * with a {@link ServiceUnavailableException}, so it is never stored. Once the writer has taken it
+     * into a batch, the caller waits for that batch's outcome, as a 503 for a stored movement would
+     * make the client retry it and store it twice.
+     */
+    public Long submit(AccountResponse account, TransactionRequest transactionRequest) {
+        var pending = new PendingMovement(account, transactionRequest, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceUnavailableException("Movement queue is full", null);
+        }
+
+        try {
+            return pending.result().get(properties.getSubmitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Removing from the queue and the writer taking from it exclude each other, so only one wins.
+            if (queue.remove(pending)) {
+                throw new ServiceUnavailableException("Movement was not written in time", e);
+            }
+            return await(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queue.remove(pending)) {
+                throw new ServiceUnavailableException("Interrupted while waiting for the movement to be written", e);
+            }
+            return await(pending);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movements.group-commit.queued", queue, BlockingQueue::size)
+                .description("Movements waiting to be written")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("movements.group-commit.batch-size")
+                .description("Movements written per commit")
+                .register(registry);
+    }
+
+    // The writer answers every batch it takes, whatever happens to it, so this wait always ends.
+    private static Long await(PendingMovement pending) {
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Movement could not be written", cause);
+    }
+
+    private void run() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long maxDelay = properties.getMaxDelay().toNanos();
+        List<PendingMovement> batch = new ArrayList<>(maxBatchSize);
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelay;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                while (batch.size() < maxBatchSize) {
+                    PendingMovement next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutting down; what was already taken is still written before leaving the loop.
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (Throwable e) {
+                // The writer has to outlive any failure, or every later caller would wait for nothing.
+                log.error("Group commit of {} movements failed", batch.size(), e);
+                var failure = new ServiceUnavailableException("Movement could not be written", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(failure));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction. If that transaction fails because of the data, its movements
+     * are retried one by one, so a single bad movement does not fail the whole batch. Connection and
+     * other transient failures would only fail each retry again, so they fail the whole batch with a 503.
+     */
+    void flush(List<PendingMovement> batch) {
+        try {
+            List<Transaction> created = transactionTemplate.execute(status -> write(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                Transaction transaction = created.get(i);
+                if (transaction != null) {
+                    batch.get(i).result().complete(transaction.getId());
+                } else {
+                    batch.get(i).result().completeExceptionally(new InsufficientBalanceException("Saldo no disponible"));
+                }
+            }
+            if (batchSizes != null) {
+                batchSizes.record(batch.size());
+            }
+
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("Group commit of {} movements failed: {}", batch.size(), e.toString());
+                var failure = new ServiceUnavailableException("Movement could not be written", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(failure));
+                return;
+            }
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} movements failed, retrying them one by one: {}", batch.size(), e.toString());
+            batch.forEach(pending -> flush(List.of(pending)));
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // Same locking and balance rules as TransactionBatchService. Movements the balance cannot cover leave
+    // a null in the returned list; they are only answered after the commit, as the batch may be retried.
+    private List<Transaction> write(List<PendingMovement> batch) {
+        Map<Long, AccountResponse> accounts = new HashMap<>();
+        batch.forEach(pending -> accounts.put(pending.request().getAccountNumber(), pending.account()));
+        Map<Long, AccountBalance> balances = balanceLedger.lockBalances(accounts);
+
+        List<Transaction> created = new ArrayList<>(batch.size());
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+
+        for (PendingMovement pending : batch) {
+            TransactionRequest request = pending.request();
+            AccountBalance balance = balances.get(request.getAccountNumber());
+            int amount = request.getTransactionAmount();
+            int availableBalance = balance.getBalance() + amount;
+
+            if (availableBalance < 0) {
+                created.add(null);
+                continue;
+            }
+
+            balance.setBalance(availableBalance);
+            var transaction = Transaction.builder()
+                    .date(request.getDate())
+                    .accountNumber(request.getAccountNumber())
+                    .type(request.getType())
+                    .initialbalance(availableBalance - amount)
+                    .state(request.getState())
+                    .transactionAmount(amount)
+                    .availableBalance(availableBalance)
+                    .build();
+            transactions.add(transaction);
+            created.add(transaction);
+        }
+
+        transactionRepository.saveAll(transactions);
+        dailyBalanceService.recordMovements(transactions);
+        return created;
+    }
+
+    record PendingMovement(AccountResponse account, TransactionRequest request, CompletableFuture<Long> result) {
+    }
+}
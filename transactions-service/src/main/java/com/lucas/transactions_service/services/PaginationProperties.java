@@ -0,0 +1,24 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "pagination")
+public class PaginationProperties {
+
+    private int defaultSize = 50;
+    private int maxSize = 500;
+
+    public int resolve(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        return Math.min(size, maxSize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.lucas.transactions_service.services;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "read-model")
+public class ReadModelProperties {
+
+    // Rebuild the account projection from accounts-service when the service starts with it empty.
+    private boolean rebuildOnStartup = true;
+    private int snapshotPageSize = 500;
+}
@@ -0,0 +1,159 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.account.AccountLookup;
+import com.lucas.transactions_service.exeptions.ServiceUnavailableException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.TransactionBatchResult;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion of movements. Accounts are validated with one batched lookup, and rows are written
+ * in chunks, each in its own database transaction, so Hibernate can send the inserts as JDBC batches.
+ */
+@Service
+@Observed(name = "service.method")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionBatchService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountLookup accountLookup;
+    private final BalanceLedger balanceLedger;
+    private final DailyBalanceService dailyBalanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public List<TransactionBatchResult> addTransactions(List<TransactionRequest> transactionRequests){
+        TransactionBatchResult[] results = new TransactionBatchResult[transactionRequests.size()];
+
+        Set<Long> accountNumbers = transactionRequests.stream()
+                .filter(Objects::nonNull)
+                .map(TransactionRequest::getAccountNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, AccountResponse> accounts = getAccountsByIds(accountNumbers);
+
+        for (int from = 0; from < transactionRequests.size(); from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + CHUNK_SIZE, transactionRequests.size());
+            transactionTemplate.executeWithoutResult(status -> addChunk(transactionRequests, start, end, accounts, results));
+            // With open-in-view the chunks share the request's persistence context; without clearing it,
+            // every later flush would dirty-check all movements written so far.
+            entityManager.clear();
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void addChunk(List<TransactionRequest> transactionRequests, int start, int end,
+                          Map<Long, AccountResponse> accounts, TransactionBatchResult[] results) {
+        Map<Long, AccountResponse> chunkAccounts = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int index = start; index < end; index++) {
+            TransactionRequest request = transactionRequests.get(index);
+            if (request == null || request.getAccountNumber() == null || request.getTransactionAmount() == null) {
+                results[index] = rejected(index, "accountNumber and transactionAmount are required");
+            } else if (!accounts.containsKey(request.getAccountNumber())) {
+                results[index] = rejected(index, "Account not found");
+            } else {
+                chunkAccounts.put(request.getAccountNumber(), accounts.get(request.getAccountNumber()));
+                accepted.add(index);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Map<Long, AccountBalance> balances = balanceLedger.lockBalances(chunkAccounts);
+        List<Transaction> transactions = new ArrayList<>(accepted.size());
+        List<Integer> created = new ArrayList<>(accepted.size());
+
+        for (int index : accepted) {
+            TransactionRequest request = transactionRequests.get(index);
+            AccountBalance balance = balances.get(request.getAccountNumber());
+            int amount = request.getTransactionAmount();
+            int availableBalance = balance.getBalance() + amount;
+
+            if (availableBalance < 0) {
+                results[index] = rejected(index, "Saldo no disponible");
+                continue;
+            }
+
+            balance.setBalance(availableBalance);
+            transactions.add(Transaction.builder()
+                    .date(request.getDate())
+                    .accountNumber(request.getAccountNumber())
+                    .type(request.getType())
+                    .initialbalance(availableBalance - amount)
+                    .state(request.getState())
+                    .transactionAmount(amount)
+                    .availableBalance(availableBalance)
+                    .build());
+            created.add(index);
+        }
+
+        transactionRepository.saveAll(transactions);
+        dailyBalanceService.recordMovements(transactions);
+
+        for (int i = 0; i < created.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            results[created.get(i)] = TransactionBatchResult.builder()
+                    .index(created.get(i))
+                    .id(transaction.getId())
+                    .status(TransactionBatchResult.CREATED)
+                    .availableBalance(transaction.getAvailableBalance())
+                    .build();
+        }
+    }
+
+    private TransactionBatchResult rejected(int index, String message) {
+        return TransactionBatchResult.builder()
+                .index(index)
+                .status(TransactionBatchResult.REJECTED)
+                .message(message)
+                .build();
+    }
+
+    private Map<Long, AccountResponse> getAccountsByIds(Set<Long> ids){
+        try {
+            return accountLookup.getAccountsByIds(ids);
+
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Account service call rejected: {}", e.getMessage());
+            throw new ServiceUnavailableException("Account service is unavailable", e);
+
+        } catch (FeignException e) {
+            log.error("Feign error - Status: {}, Body: {}, Message: {}", e.status(), e.contentUTF8(), e.getMessage());
+            throw new RuntimeException("Error calling the account service", e);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while searching for accounts", e);
+            throw new RuntimeException("Unexpected error", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.ResourceNotFoundException;
+import com.lucas.transactions_service.model.dtos.TransactionResponse;
+import com.lucas.transactions_service.model.entities.Transaction;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the report rows for stored movements from client names already resolved per account number.
+ */
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+    }
+
+    public static List<TransactionResponse> toTransactionResponses(List<Transaction> transactions, Map<Long, String> clientNames) {
+        return transactions.stream()
+                .map(transaction -> toTransactionResponse(transaction, clientNames))
+                .toList();
+    }
+
+    public static TransactionResponse toTransactionResponse(Transaction transaction, Map<Long, String> clientNames) {
+        if (!clientNames.containsKey(transaction.getAccountNumber())) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .date(transaction.getDate())
+                .clientName(clientNames.get(transaction.getAccountNumber()))
+                .accountNumber(transaction.getAccountNumber())
+                .type(transaction.getType())
+                .initialbalance(transaction.getInitialbalance())
+                .state(transaction.getState())
+                .transactionAmount(transaction.getTransactionAmount())
+                .availableBalance(transaction.getAvailableBalance())
+                .build();
+    }
+}
@@ -1,115 +1,308 @@
 package com.lucas.transactions_service.services;
 
-import com.lucas.transactions_service.account.AccountTransaction;
-import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.account.AccountLookup;
 import com.lucas.transactions_service.exeptions.ResourceNotFoundException;
+import com.lucas.transactions_service.exeptions.ServiceUnavailableException;
 import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.CursorPage;
 import com.lucas.transactions_service.model.dtos.ReportRequest;
+import com.lucas.transactions_service.model.dtos.StatementPeriod;
+import com.lucas.transactions_service.model.dtos.StatementRequest;
+import com.lucas.transactions_service.model.dtos.StatementResponse;
 import com.lucas.transactions_service.model.dtos.TransactionRequest;
 import com.lucas.transactions_service.model.dtos.TransactionResponse;
+import com.lucas.transactions_service.model.entities.DailyBalanceId;
 import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.StatementLine;
 import com.lucas.transactions_service.repositories.TransactionRepository;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "service.method")
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
-    private final AccountTransaction accountTransaction;
+    private final AccountLookup accountLookup;
+    private final AccountViewService accountViewService;
+    private final BalanceLedger balanceLedger;
+    private final DailyBalanceService dailyBalanceService;
+    private final IdempotencyService idempotencyService;
+    private final MovementBatcher movementBatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final PaginationProperties paginationProperties;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public Long addTransaction(TransactionRequest transactionRequest){
+        var account = getAccountById(transactionRequest.getAccountNumber());
+
+        if (movementBatcher.isEnabled()) {
+            return movementBatcher.submit(account, transactionRequest);
+        }
+        return transactionTemplate.execute(status -> insertTransaction(account, transactionRequest));
+    }
 
-    public void addTransaction(TransactionRequest transactionRequest){
-        int availableBalance =
-                transactionRequest.getInitialbalance() +
-                        transactionRequest.getTransactionAmount();
+    /**
+     * Creates the movement once per idempotency key. Retries of a completed key get the original
+     * movement id back without looking up the account or touching the ledger.
+     */
+    public Long addTransaction(TransactionRequest transactionRequest, String idempotencyKey){
+        if (idempotencyKey == null) {
+            return addTransaction(transactionRequest);
+        }
 
-        if(availableBalance < 0){
-            throw new InsufficientBalanceException("Saldo no disponible");
+        String requestHash = idempotencyService.hash(transactionRequest);
+        var previous = idempotencyService.findCompleted(idempotencyKey, requestHash);
+        if (previous.isPresent()) {
+            return previous.get();
         }
 
+        var account = getAccountById(transactionRequest.getAccountNumber());
+        Long id = transactionTemplate.execute(status -> idempotencyService.claim(idempotencyKey, requestHash)
+                .orElseGet(() -> {
+                    Long created = insertTransaction(account, transactionRequest);
+                    idempotencyService.complete(idempotencyKey, created);
+                    return created;
+                }));
+
+        idempotencyService.remember(idempotencyKey, requestHash, id);
+        return id;
+    }
 
-        getAccountById(transactionRequest.getAccountNumber());
+    // The balances sent by the caller are ignored: the ledger owns the running balance.
+    private Long insertTransaction(AccountResponse account, TransactionRequest transactionRequest){
+        int amount = transactionRequest.getTransactionAmount();
+        int availableBalance = balanceLedger.applyMovement(account, amount);
 
         var transaction = Transaction.builder()
                 .date(transactionRequest.getDate())
                 .accountNumber(transactionRequest.getAccountNumber())
                 .type(transactionRequest.getType())
-                .initialbalance(transactionRequest.getInitialbalance())
+                .initialbalance(availableBalance - amount)
                 .state(transactionRequest.getState())
-                .transactionAmount(transactionRequest.getTransactionAmount())
+                .transactionAmount(amount)
                 .availableBalance(availableBalance)
                 .build();
 
         transactionRepository.save(transaction);
+        dailyBalanceService.recordMovement(transaction.getAccountNumber(), transaction.getDate(), amount);
+        return transaction.getId();
     }
 
     public void removeTransaction(Long id){
-        boolean exists = transactionRepository.existsById(id);;
-        if (!exists) {
-            throw new ResourceNotFoundException("Transaction not found with id: " + id);
-        }
+        transactionTemplate.executeWithoutResult(status -> {
+            var transaction = transactionRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
 
-        transactionRepository.deleteById(id);
+            balanceLedger.reverseMovement(transaction.getAccountNumber(), transaction.getTransactionAmount());
+            transactionRepository.delete(transaction);
+            dailyBalanceService.recordMovement(transaction.getAccountNumber(), transaction.getDate(),
+                    -transaction.getTransactionAmount());
+        });
     }
 
     public Transaction updateTransaction(Long id, TransactionRequest transactionRequestUpdated) {
-        getAccountById(transactionRequestUpdated.getAccountNumber());
-        return transactionRepository.findById(id).map(transaction -> {
+        var account = getAccountById(transactionRequestUpdated.getAccountNumber());
+        return transactionTemplate.execute(status -> transactionRepository.findById(id).map(transaction -> {
+            Long previousAccountNumber = transaction.getAccountNumber();
+            int previousAmount = transaction.getTransactionAmount();
+            balanceLedger.lockAccounts(previousAccountNumber, account);
+
+            Map<DailyBalanceId, Long> dailyChanges = new HashMap<>();
+            dailyChanges.put(new DailyBalanceId(previousAccountNumber, transaction.getDate()), (long) -previousAmount);
+
+            // Within one account only the difference is applied, so an edit is not refused because the
+            // original movement alone could not be taken back.
+            int amount = transactionRequestUpdated.getTransactionAmount();
+            int availableBalance;
+            if (previousAccountNumber.equals(account.getAccountNumber())) {
+                availableBalance = balanceLedger.applyMovement(account, amount - previousAmount);
+            } else {
+                balanceLedger.reverseMovement(previousAccountNumber, previousAmount);
+                availableBalance = balanceLedger.applyMovement(account, amount);
+            }
+
             transaction.setDate(transactionRequestUpdated.getDate());
             transaction.setAccountNumber(transactionRequestUpdated.getAccountNumber());
             transaction.setType(transactionRequestUpdated.getType());
-            transaction.setInitialbalance(transactionRequestUpdated.getInitialbalance());
+            transaction.setInitialbalance(availableBalance - amount);
             transaction.setState(transactionRequestUpdated.getState());
-            transaction.setTransactionAmount(transactionRequestUpdated.getTransactionAmount());
-            transaction.setAvailableBalance(transactionRequestUpdated.getAvailableBalance());
+            transaction.setTransactionAmount(amount);
+            transaction.setAvailableBalance(availableBalance);
 
-            return transactionRepository.save(transaction);
-        }).orElseThrow(() -> new ResourceNotFoundException("transaction not found with id: " + id));
+            Transaction saved = transactionRepository.save(transaction);
+            dailyChanges.merge(new DailyBalanceId(saved.getAccountNumber(), saved.getDate()), (long) amount, Long::sum);
+            dailyBalanceService.recordChanges(dailyChanges);
+            return saved;
+        }).orElseThrow(() -> new ResourceNotFoundException("transaction not found with id: " + id)));
     }
 
-    public List<TransactionResponse> getAllTransactions(){
-        var transactions = transactionRepository.findAll();
+    public CursorPage<TransactionResponse> getAllTransactions(String cursor, Integer size){
+        int pageSize = paginationProperties.resolve(size);
+        var transactions = transactionRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decode(cursor), Limit.of(pageSize + 1));
 
-        return transactions.stream().map(this::mapToClientResponse).toList();
+        boolean hasNext = transactions.size() > pageSize;
+        var page = hasNext ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+        return new CursorPage<>(mapToClientResponses(page), nextCursor);
     }
 
     public List<TransactionResponse> getReportsBetweenDates(ReportRequest reportRequest){
 
+        validateReportRange(reportRequest);
+
+        var transactions = transactionRepository.findByDateBetween(reportRequest.getStartDate(),reportRequest.getEndDate());
+
+        return mapToClientResponses(transactions);
+    }
+
+    public void validateReportRange(ReportRequest reportRequest){
         if (reportRequest.getStartDate().isAfter(reportRequest.getEndDate())) {
             throw new IllegalArgumentException("Start date cannot be after end date");
         }
+    }
 
-        var transactions = transactionRepository.findByDateBetween(reportRequest.getStartDate(),reportRequest.getEndDate());
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<StatementResponse> getStatement(StatementRequest statementRequest){
+        if (statementRequest.getStartDate() == null || statementRequest.getEndDate() == null) {
+            throw new IllegalArgumentException("Start date and end date are required");
+        }
+        if (statementRequest.getStartDate().isAfter(statementRequest.getEndDate())) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
 
-        return transactions.stream().map(this::mapToClientResponse).toList();
+        StatementPeriod period = statementRequest.getPeriod() == null ? StatementPeriod.MONTHLY : statementRequest.getPeriod();
+
+        var lines = transactionRepository.summarizeByPeriod(
+                statementRequest.getAccountNumber(),
+                statementRequest.getStartDate(),
+                statementRequest.getEndDate(),
+                period.getUnit());
+
+        // The balances stored on each movement are snapshots of the ledger when it was written, which
+        // backdated and edited movements make stale. Each account starts from its balance the day before
+        // the statement, and every period carries on from the closing balance of the one before.
+        List<StatementResponse> statement = new ArrayList<>(lines.size());
+        Long accountNumber = null;
+        long balance = 0;
+
+        for (StatementLine line : lines) {
+            if (!line.getAccountNumber().equals(accountNumber)) {
+                accountNumber = line.getAccountNumber();
+                balance = dailyBalanceService.balanceAt(accountNumber, statementRequest.getStartDate().minusDays(1));
+            }
+            long opening = balance;
+            balance += line.getTotalCredits() + line.getTotalDebits();
+
+            statement.add(StatementResponse.builder()
+                    .accountNumber(line.getAccountNumber())
+                    .periodStart(line.getPeriodStart())
+                    .openingBalance(Math.toIntExact(opening))
+                    .totalCredits(line.getTotalCredits())
+                    .totalDebits(line.getTotalDebits())
+                    .closingBalance(Math.toIntExact(balance))
+                    .movements(line.getMovements())
+                    .build());
+        }
+
+        return statement;
     }
 
-    private TransactionResponse mapToClientResponse(Transaction transaction){
-        return TransactionResponse.builder()
-                .id(transaction.getId())
-                .date(transaction.getDate())
-                .clientName(getAccountById(transaction.getAccountNumber()).getClientResponse().getName())
-                .accountNumber(transaction.getAccountNumber())
-                .type(transaction.getType())
-                .initialbalance(transaction.getInitialbalance())
-                .state(transaction.getState())
-                .transactionAmount(transaction.getTransactionAmount())
-                .availableBalance(transaction.getAvailableBalance())
-                .build();
+    @Transactional(readOnly = true)
+    public void streamReportsBetweenDates(ReportRequest reportRequest, OutputStream outputStream) throws IOException {
+
+        validateReportRange(reportRequest);
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByDateBetweenOrderByIdAsc(
+                reportRequest.getStartDate(), reportRequest.getEndDate())) {
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            List<Transaction> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    writeNdjson(chunk, outputStream);
+                    chunk.clear();
+                }
+            }
+            writeNdjson(chunk, outputStream);
+        }
+    }
+
+    private void writeNdjson(List<Transaction> chunk, OutputStream outputStream) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        for (TransactionResponse response : mapToClientResponses(chunk)) {
+            outputStream.write(objectMapper.writeValueAsBytes(response));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+        entityManager.clear();
+    }
+
+    private List<TransactionResponse> mapToClientResponses(List<Transaction> transactions){
+        Set<Long> accountNumbers = transactions.stream()
+                .map(Transaction::getAccountNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // Names come from the local projection; only accounts it does not know yet are fetched remotely.
+        Map<Long, String> clientNames = accountViewService.findClientNames(accountNumbers);
+        Set<Long> missing = accountNumbers.stream()
+                .filter(accountNumber -> !clientNames.containsKey(accountNumber))
+                .collect(Collectors.toSet());
+
+        if (!missing.isEmpty()) {
+            getAccountsByIds(missing).forEach((accountNumber, account) ->
+                    clientNames.put(accountNumber, account.getClientResponse().getName()));
+        }
+
+        return TransactionMapper.toTransactionResponses(transactions, clientNames);
     }
 
     private AccountResponse getAccountById(Long id){
         try {
-            return accountTransaction.getAccountById(id);
+            return accountLookup.getAccountById(id);
         } catch (FeignException.NotFound e) {
             throw new ResourceNotFoundException("Account not found");
 
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Account service call rejected: {}", e.getMessage());
+            throw new ServiceUnavailableException("Account service is unavailable", e);
+
         } catch (FeignException e) {
             log.error("Feign error - Status: {}, Body: {}, Message: {}", e.status(), e.contentUTF8(), e.getMessage());
             throw new RuntimeException("Error calling the account service", e);
@@ -120,4 +313,22 @@ public class TransactionService {
         }
     }
 
+    private Map<Long, AccountResponse> getAccountsByIds(Set<Long> ids){
+        try {
+            return accountLookup.getAccountsByIds(ids);
+
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Account service call rejected: {}", e.getMessage());
+            throw new ServiceUnavailableException("Account service is unavailable", e);
+
+        } catch (FeignException e) {
+            log.error("Feign error - Status: {}, Body: {}, Message: {}", e.status(), e.contentUTF8(), e.getMessage());
+            throw new RuntimeException("Error calling the account service", e);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while searching for accounts", e);
+            throw new RuntimeException("Unexpected error", e);
+        }
+    }
+
 }
@@ -0,0 +1,68 @@
+package com.lucas.transactions_service.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps finished spans in memory instead of shipping them to a collector. Enabled with
+ * {@code tracing.exporter=memory}, mainly so tests can read back the spans of a request and assert on
+ * how many remote calls and queries it produced. Only the most recent {@link #MAX_SPANS} spans are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "tracing.exporter", havingValue = "memory")
+public class InMemorySpanExporter implements SpanExporter {
+
+    public static final int MAX_SPANS = 10_000;
+
+    private final Deque<SpanData> spans = new ConcurrentLinkedDeque<>();
+    // ConcurrentLinkedDeque.size() walks the whole deque, so the count is kept alongside it.
+    private final AtomicInteger size = new AtomicInteger();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> finished) {
+        for (SpanData span : finished) {
+            spans.addLast(span);
+            if (size.incrementAndGet() > MAX_SPANS && spans.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        reset();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public List<SpanData> getTrace(String traceId) {
+        return spans.stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+    }
+
+    public void reset() {
+        while (spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+    }
+}
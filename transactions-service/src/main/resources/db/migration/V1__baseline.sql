@@ -0,0 +1,19 @@
+-- Schema as previously generated by ddl-auto=update. Safe to run on databases created that way.
+CREATE TABLE IF NOT EXISTS client (
+    id                 BIGINT PRIMARY KEY,
+    date               DATE,
+    account_number     BIGINT,
+    type               VARCHAR(255),
+    initialbalance     INTEGER,
+    state              BOOLEAN,
+    transaction_amount INTEGER,
+    available_balance  INTEGER
+);
+
+CREATE SEQUENCE IF NOT EXISTS transaction_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS account_balance (
+    account_number BIGINT PRIMARY KEY,
+    balance        INTEGER,
+    version        BIGINT
+);
@@ -0,0 +1,8 @@
+-- Movements were stored in a table called "client".
+ALTER TABLE client RENAME TO movement;
+
+-- Rows inserted before ids came from transaction_seq used the identity column.
+SELECT setval('transaction_seq', (SELECT COALESCE(MAX(id), 0) FROM movement) + 50);
+
+CREATE INDEX IF NOT EXISTS idx_movement_date ON movement (date);
+CREATE INDEX IF NOT EXISTS idx_movement_account_number_date ON movement (account_number, date);
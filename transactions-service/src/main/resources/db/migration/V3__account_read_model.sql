@@ -0,0 +1,19 @@
+-- Local projection of accounts-service and customers-service used to resolve client names in reports.
+CREATE TABLE IF NOT EXISTS account_view (
+    account_number BIGINT PRIMARY KEY,
+    client_id      BIGINT,
+    status         BOOLEAN,
+    deleted        BOOLEAN   NOT NULL DEFAULT FALSE,
+    sequence       BIGINT    NOT NULL DEFAULT 0,
+    synced_at      TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_account_view_client_id ON account_view (client_id);
+
+CREATE TABLE IF NOT EXISTS client_view (
+    client_id BIGINT PRIMARY KEY,
+    name      VARCHAR(255),
+    deleted   BOOLEAN   NOT NULL DEFAULT FALSE,
+    sequence  BIGINT    NOT NULL DEFAULT 0,
+    synced_at TIMESTAMP NOT NULL
+);
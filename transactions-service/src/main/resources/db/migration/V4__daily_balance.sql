@@ -0,0 +1,21 @@
+-- End-of-day balance per account for every day with movements. Kept up to date as movements are
+-- written and rebuilt nightly; balances at other dates are the nearest row plus the movements between.
+CREATE TABLE IF NOT EXISTS daily_balance (
+    account_number  BIGINT NOT NULL,
+    day             DATE   NOT NULL,
+    closing_balance BIGINT NOT NULL,
+    PRIMARY KEY (account_number, day)
+);
+
+-- The closing balance of a day is the ledger balance minus everything booked on later days.
+INSERT INTO daily_balance (account_number, day, closing_balance)
+SELECT d.account_number,
+       d.date,
+       b.balance - COALESCE(SUM(d.total) OVER (PARTITION BY d.account_number ORDER BY d.date DESC
+                                               ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0)
+FROM (SELECT account_number, date, SUM(transaction_amount) AS total
+      FROM movement
+      WHERE date IS NOT NULL
+      GROUP BY account_number, date) d
+JOIN account_balance b ON b.account_number = d.account_number
+ON CONFLICT (account_number, day) DO NOTHING;
@@ -0,0 +1,9 @@
+-- Idempotency keys of POST /api/movimientos, kept for idempotency.retention and then purged.
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    transaction_id  BIGINT,
+    created_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,11 @@
+-- Sub-balances of accounts listed in ledger.sharding.accounts. The balance of such an account is its
+-- account_balance row plus the sum of its shards.
+CREATE TABLE IF NOT EXISTS account_balance_shard (
+    account_number BIGINT  NOT NULL,
+    shard          INTEGER NOT NULL,
+    balance        INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_number, shard)
+);
+
+-- Daily snapshots now only cover closed days, so writers of today's movements never share a row.
+DELETE FROM daily_balance WHERE day >= CURRENT_DATE;
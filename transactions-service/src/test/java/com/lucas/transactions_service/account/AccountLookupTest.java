@@ -0,0 +1,221 @@
+package com.lucas.transactions_service.account;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.ClientResponse;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountLookupTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/cuentas/1",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AccountTransaction accountTransaction;
+
+    private AccountLookup accountLookup;
+
+    @BeforeEach
+    void setUp() {
+        accountTransaction = mock(AccountTransaction.class);
+        accountLookup = lookup(new AccountCacheProperties());
+    }
+
+    @Test
+    void testGetAccountByIdCallsAccountServiceOnlyOnce() throws Exception {
+        when(accountTransaction.getAccountById(1L, null)).thenReturn(ok(account(1L, "Juan"), null));
+
+        accountLookup.getAccountById(1L);
+        AccountResponse account = accountLookup.getAccountById(1L);
+
+        assertEquals("Juan", account.getClientResponse().getName());
+        assertEquals(1, accountLookup.stats().hitCount());
+        verify(accountTransaction, times(1)).getAccountById(1L, null);
+    }
+
+    @Test
+    void testGetAccountsByIdsOnlyLoadsMissingAccounts() throws Exception {
+        when(accountTransaction.getAccountById(1L, null)).thenReturn(ok(account(1L, "Juan"), null));
+        when(accountTransaction.getAccountsByIds(Set.of(2L))).thenReturn(List.of(account(2L, "Mario")));
+
+        accountLookup.getAccountById(1L);
+        Map<Long, AccountResponse> accounts = accountLookup.getAccountsByIds(Set.of(1L, 2L));
+
+        assertEquals(2, accounts.size());
+        assertEquals("Mario", accounts.get(2L).getClientResponse().getName());
+        verify(accountTransaction).getAccountsByIds(Set.of(2L));
+    }
+
+    @Test
+    void testGetAccountsByIdsFetchesLargeSetsInParallelBatches() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setBatchSize(2);
+        accountLookup = lookup(properties);
+
+        when(accountTransaction.getAccountsByIds(anySet())).thenAnswer(invocation -> {
+            Set<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> account(id, "Cliente " + id)).toList();
+        });
+
+        Map<Long, AccountResponse> accounts = accountLookup.getAccountsByIds(Set.of(1L, 2L, 3L, 4L, 5L));
+
+        assertEquals(5, accounts.size());
+        assertEquals("Cliente 4", accounts.get(4L).getClientResponse().getName());
+        verify(accountTransaction, times(3)).getAccountsByIds(anySet());
+    }
+
+    @Test
+    void testConcurrentLookupsShareTheBatchParallelism() throws Exception {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setBatchSize(1);
+        properties.setParallelism(2);
+        accountLookup = lookup(properties);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(accountTransaction.getAccountsByIds(anySet())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            Set<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> account(id, "Cliente " + id)).toList();
+        });
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(2)) {
+            Future<Map<Long, AccountResponse>> first = callers.submit(() -> accountLookup.getAccountsByIds(Set.of(1L, 2L, 3L, 4L)));
+            Future<Map<Long, AccountResponse>> second = callers.submit(() -> accountLookup.getAccountsByIds(Set.of(5L, 6L, 7L, 8L)));
+
+            assertEquals(4, first.get().size());
+            assertEquals(4, second.get().size());
+        }
+
+        assertTrue(maxInFlight.get() <= 2, "At most 2 batches may be in flight, saw " + maxInFlight.get());
+        verify(accountTransaction, times(8)).getAccountsByIds(anySet());
+    }
+
+    @Test
+    void testLaterBatchesAreNotFetchedOnceOneFails() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setBatchSize(1);
+        properties.setParallelism(1);
+        accountLookup = lookup(properties);
+
+        when(accountTransaction.getAccountsByIds(anySet())).thenThrow(new RuntimeException("Read timed out"));
+
+        assertThrows(RuntimeException.class, () -> accountLookup.getAccountsByIds(Set.of(1L, 2L, 3L, 4L, 5L)));
+
+        // The other batches were queued behind the single permit; they must give up rather than call.
+        verify(accountTransaction, after(200).times(1)).getAccountsByIds(anySet());
+    }
+
+    @Test
+    void testEvictForcesReload() throws Exception {
+        when(accountTransaction.getAccountById(1L, null))
+                .thenReturn(ok(account(1L, "Juan"), null), ok(account(1L, "Juan Perez"), null));
+
+        accountLookup.getAccountById(1L);
+        accountLookup.evict(1L);
+        AccountResponse account = accountLookup.getAccountById(1L);
+
+        assertEquals("Juan Perez", account.getClientResponse().getName());
+        verify(accountTransaction, times(2)).getAccountById(1L, null);
+    }
+
+    @Test
+    void testExpiredAccountIsRevalidatedWithItsETag() throws Exception {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setTtl(Duration.ZERO);
+        accountLookup = lookup(properties);
+
+        when(accountTransaction.getAccountById(1L, null)).thenReturn(ok(account(1L, "Juan"), "\"3.7\""));
+        when(accountTransaction.getAccountById(1L, "\"3.7\"")).thenReturn(notModified("\"3.7\""));
+
+        AccountResponse first = accountLookup.getAccountById(1L);
+        AccountResponse second = accountLookup.getAccountById(1L);
+
+        assertSame(first, second);
+        verify(accountTransaction, times(1)).getAccountById(1L, null);
+        verify(accountTransaction, times(1)).getAccountById(1L, "\"3.7\"");
+    }
+
+    @Test
+    void testServesLastKnownAccountWhenAccountServiceFails() throws Exception {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setTtl(Duration.ZERO);
+        accountLookup = lookup(properties);
+
+        when(accountTransaction.getAccountById(1L, null))
+                .thenReturn(ok(account(1L, "Juan"), null))
+                .thenThrow(new RuntimeException("Read timed out"));
+
+        accountLookup.getAccountById(1L);
+        AccountResponse account = accountLookup.getAccountById(1L);
+
+        assertEquals("Juan", account.getClientResponse().getName());
+        verify(accountTransaction, times(2)).getAccountById(1L, null);
+    }
+
+    @Test
+    void testRethrowsWhenNoLastKnownAccount() {
+        when(accountTransaction.getAccountsByIds(anySet())).thenThrow(new RuntimeException("Read timed out"));
+
+        assertThrows(RuntimeException.class, () -> accountLookup.getAccountsByIds(Set.of(1L, 2L)));
+    }
+
+    private AccountLookup lookup(AccountCacheProperties properties) {
+        return new AccountLookup(accountTransaction, properties, objectMapper,
+                BulkheadRegistry.ofDefaults(),
+                CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()));
+    }
+
+    private Response ok(AccountResponse account, String etag) throws JsonProcessingException {
+        Map<String, Collection<String>> headers = etag == null ? Map.of() : Map.of(HttpHeaders.ETAG, List.of(etag));
+        return Response.builder()
+                .status(200)
+                .request(REQUEST)
+                .headers(headers)
+                .body(objectMapper.writeValueAsBytes(account))
+                .build();
+    }
+
+    private Response notModified(String etag) {
+        return Response.builder()
+                .status(304)
+                .request(REQUEST)
+                .headers(Map.of(HttpHeaders.ETAG, List.of(etag)))
+                .build();
+    }
+
+    private AccountResponse account(Long accountNumber, String clientName) {
+        ClientResponse client = ClientResponse.builder().id(1L).name(clientName).build();
+        return new AccountResponse(accountNumber, "Ahorros", 1000.0, true, client);
+    }
+}
@@ -0,0 +1,139 @@
+package com.lucas.transactions_service.account;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.ClientResponse;
+import com.lucas.transactions_service.tracing.InMemorySpanExporter;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.micrometer.MicrometerObservationCapability;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives a report-sized lookup through a real Feign client observed the way the application observes it,
+ * and checks that the batches fetched on the lookup's executor stay in the caller's trace.
+ */
+class AccountLookupTracingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+    private final List<String> traceparents = new CopyOnWriteArrayList<>();
+
+    private SdkTracerProvider tracerProvider;
+    private HttpServer accountsService;
+    private ObservationRegistry observationRegistry;
+    private Tracer tracer;
+    private AccountLookup accountLookup;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+        tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> {
+        });
+        var propagator = new OtelPropagator(ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                new DefaultTracingObservationHandler(tracer)));
+        ObservationThreadLocalAccessor.getInstance().setObservationRegistry(observationRegistry);
+
+        accountsService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        accountsService.createContext("/api/cuentas/batch", exchange -> {
+            traceparents.add(exchange.getRequestHeaders().getFirst("traceparent"));
+            Set<Long> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {
+            });
+            byte[] body = objectMapper.writeValueAsBytes(ids.stream().map(this::account).toList());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        accountsService.start();
+
+        HttpMessageConverters converters = new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper));
+        AccountTransaction accountTransaction = Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(() -> converters)))
+                .addCapability(new MicrometerObservationCapability(observationRegistry))
+                .target(AccountTransaction.class, "http://localhost:" + accountsService.getAddress().getPort());
+
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setBatchSize(2);
+        accountLookup = new AccountLookup(accountTransaction, properties, objectMapper,
+                BulkheadRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults());
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountLookup.shutdown();
+        accountsService.stop(0);
+        tracerProvider.close();
+    }
+
+    @Test
+    void testParallelBatchesStayInTheCallersTrace() {
+        Set<Long> ids = Set.copyOf(LongStream.rangeClosed(1, 6).boxed().toList());
+
+        String traceId = Observation.createNotStarted("reportes", observationRegistry).observe(() -> {
+            Map<Long, AccountResponse> accounts = accountLookup.getAccountsByIds(ids);
+            assertEquals(6, accounts.size());
+            return tracer.currentSpan().context().traceId();
+        });
+
+        List<SpanData> feignSpans = exporter.getFinishedSpans().stream()
+                .filter(span -> span.getKind() == SpanKind.CLIENT)
+                .toList();
+        assertEquals(3, feignSpans.size());
+        assertTrue(feignSpans.stream().allMatch(span -> span.getTraceId().equals(traceId)), feignSpans.toString());
+
+        assertEquals(3, traceparents.size());
+        assertTrue(traceparents.stream().allMatch(header -> header != null && header.contains(traceId)), traceparents.toString());
+    }
+
+    private AccountResponse account(Long accountNumber) {
+        ClientResponse client = ClientResponse.builder().id(accountNumber).name("Cliente " + accountNumber).build();
+        return new AccountResponse(accountNumber, "Ahorros", 1000.0, true, client);
+    }
+}
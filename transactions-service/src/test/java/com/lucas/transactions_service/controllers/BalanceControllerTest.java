@@ -0,0 +1,72 @@
+package com.lucas.transactions_service.controllers;
+
+import com.lucas.transactions_service.model.dtos.BalanceRangeRequest;
+import com.lucas.transactions_service.model.dtos.BalanceRequest;
+import com.lucas.transactions_service.model.dtos.BalanceResponse;
+import com.lucas.transactions_service.services.DailyBalanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BalanceControllerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 10);
+
+    private DailyBalanceService dailyBalanceService;
+
+    private BalanceController balanceController;
+
+    @BeforeEach
+    void setUp() {
+        dailyBalanceService = mock(DailyBalanceService.class);
+        balanceController = new BalanceController(dailyBalanceService);
+    }
+
+    @Test
+    void testGetBalanceReturnsBalanceAtDate() {
+        BalanceRequest request = new BalanceRequest(1L, DATE);
+        when(dailyBalanceService.getBalance(request)).thenReturn(new BalanceResponse(1L, DATE, 1250L));
+
+        ResponseEntity<BalanceResponse> response = balanceController.getBalance(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1250L, response.getBody().getBalance());
+        verify(dailyBalanceService).getBalance(request);
+    }
+
+    @Test
+    void testGetDailyBalancesReturnsOneBalancePerDay() {
+        BalanceRangeRequest request = new BalanceRangeRequest(1L, DATE, DATE.plusDays(1));
+        when(dailyBalanceService.getDailyBalances(request)).thenReturn(List.of(
+                new BalanceResponse(1L, DATE, 1000L),
+                new BalanceResponse(1L, DATE.plusDays(1), 900L)));
+
+        ResponseEntity<List<BalanceResponse>> response = balanceController.getDailyBalances(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertEquals(900L, response.getBody().get(1).getBalance());
+        verify(dailyBalanceService).getDailyBalances(request);
+    }
+
+    @Test
+    void testGetDailyBalancesPropagatesValidationErrors() {
+        BalanceRangeRequest request = new BalanceRangeRequest(1L, DATE, DATE.minusDays(1));
+        when(dailyBalanceService.getDailyBalances(request))
+                .thenThrow(new IllegalArgumentException("Start date cannot be after end date"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> balanceController.getDailyBalances(request));
+
+        assertEquals("Start date cannot be after end date", exception.getMessage());
+    }
+}
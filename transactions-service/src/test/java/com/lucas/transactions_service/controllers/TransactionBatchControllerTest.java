@@ -0,0 +1,52 @@
+package com.lucas.transactions_service.controllers;
+
+import com.lucas.transactions_service.model.dtos.TransactionBatchResult;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.services.TransactionBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionBatchControllerTest {
+
+    private TransactionBatchService transactionBatchService;
+
+    private TransactionBatchController transactionBatchController;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = mock(TransactionBatchService.class);
+        transactionBatchController = new TransactionBatchController(transactionBatchService);
+    }
+
+    @Test
+    void testAddTransactionsReturnsPerRowResults() {
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        List<TransactionRequest> requests = List.of(
+                new TransactionRequest(date, 1L, "Deposito", null, true, 500, null),
+                new TransactionRequest(date, 2L, "Retiro", null, true, -9000, null)
+        );
+        List<TransactionBatchResult> results = List.of(
+                new TransactionBatchResult(0, 10L, TransactionBatchResult.CREATED, null, 1500),
+                new TransactionBatchResult(1, null, TransactionBatchResult.REJECTED, "Saldo no disponible", null)
+        );
+
+        when(transactionBatchService.addTransactions(requests)).thenReturn(results);
+
+        ResponseEntity<List<TransactionBatchResult>> response = transactionBatchController.addTransactions(requests);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(TransactionBatchResult.CREATED, response.getBody().get(0).getStatus());
+        assertEquals("Saldo no disponible", response.getBody().get(1).getMessage());
+
+        verify(transactionBatchService).addTransactions(requests);
+    }
+}
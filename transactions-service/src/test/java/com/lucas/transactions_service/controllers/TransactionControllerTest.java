@@ -1,6 +1,10 @@
 package com.lucas.transactions_service.controllers;
 
+import com.lucas.transactions_service.model.dtos.CursorPage;
 import com.lucas.transactions_service.model.dtos.ReportRequest;
+import com.lucas.transactions_service.model.dtos.StatementPeriod;
+import com.lucas.transactions_service.model.dtos.StatementRequest;
+import com.lucas.transactions_service.model.dtos.StatementResponse;
 import com.lucas.transactions_service.model.dtos.TransactionRequest;
 import com.lucas.transactions_service.model.dtos.TransactionResponse;
 import com.lucas.transactions_service.model.entities.Transaction;
@@ -12,8 +16,13 @@ import org.mockito.Mock;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,10 +56,10 @@ class TransactionControllerTest {
         request.setTransactionAmount(1000);
         request.setAvailableBalance(2000);
 
-        ResponseEntity<Void> response = transactionController.addTransaction(request);
+        ResponseEntity<Void> response = transactionController.addTransaction(request, null);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        verify(transactionService).addTransaction(request);
+        verify(transactionService).addTransaction(request, null);
     }
 
     @Test
@@ -66,9 +75,9 @@ class TransactionControllerTest {
 
         ArgumentCaptor<TransactionRequest> captor = ArgumentCaptor.forClass(TransactionRequest.class);
 
-        ResponseEntity<Void> response = transactionController.addTransaction(request);
+        ResponseEntity<Void> response = transactionController.addTransaction(request, null);
 
-        verify(transactionService).addTransaction(captor.capture());
+        verify(transactionService).addTransaction(captor.capture(), isNull());
         TransactionRequest capturedRequest = captor.getValue();
 
         assertEquals(date, capturedRequest.getDate());
@@ -82,15 +91,16 @@ class TransactionControllerTest {
 
     @Test
     void testGetAllTransactionReturnsEmptyList() {
-        when(transactionService.getAllTransactions()).thenReturn(Collections.emptyList());
+        when(transactionService.getAllTransactions(null, null)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
-        ResponseEntity<List<TransactionResponse>> response = transactionController.getAllTransactions();
+        ResponseEntity<List<TransactionResponse>> response = transactionController.getAllTransactions(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
+        assertFalse(response.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER));
 
-        verify(transactionService).getAllTransactions();
+        verify(transactionService).getAllTransactions(null, null);
     }
 
     @Test
@@ -100,9 +110,9 @@ class TransactionControllerTest {
         TransactionResponse acc2 = new TransactionResponse(2L, date, "Mario", 1L, "Corriente", 600, true, 400,1000 );
 
         List<TransactionResponse> transactionList = Arrays.asList(acc1, acc2);
-        when(transactionService.getAllTransactions()).thenReturn(transactionList);
+        when(transactionService.getAllTransactions(null, 2)).thenReturn(new CursorPage<>(transactionList, "Mg"));
 
-        ResponseEntity<List<TransactionResponse>> response = transactionController.getAllTransactions();
+        ResponseEntity<List<TransactionResponse>> response = transactionController.getAllTransactions(null, 2);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -111,8 +121,9 @@ class TransactionControllerTest {
 
         assertEquals("Ahorros", response.getBody().get(0).getType());
         assertEquals(600, response.getBody().get(1).getInitialbalance());
+        assertEquals("Mg", response.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER));
 
-        verify(transactionService).getAllTransactions();
+        verify(transactionService).getAllTransactions(null, 2);
     }
 
     @Test
@@ -248,6 +259,51 @@ class TransactionControllerTest {
         verify(transactionService).getReportsBetweenDates(request);
     }
 
+    @Test
+    void testStreamReportsBetweenDatesWritesServiceOutput() throws Exception {
+        ReportRequest request = new ReportRequest();
+        request.setStartDate(LocalDate.of(2024, 1, 1));
+        request.setEndDate(LocalDate.of(2024, 1, 31));
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(transactionService).streamReportsBetweenDates(eq(request), any(OutputStream.class));
+
+        ResponseEntity<StreamingResponseBody> response = transactionController.streamReportsBetweenDates(request);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n", outputStream.toString(StandardCharsets.UTF_8));
+
+        verify(transactionService).validateReportRange(request);
+    }
+
+    @Test
+    void testGetStatementReturnsAggregatedPeriods() {
+        StatementRequest request = new StatementRequest(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 29), StatementPeriod.MONTHLY);
+
+        List<StatementResponse> statement = List.of(
+                new StatementResponse(1L, LocalDate.of(2024, 1, 1), 1000, 500L, -200L, 1300, 4L),
+                new StatementResponse(1L, LocalDate.of(2024, 2, 1), 1300, 0L, -300L, 1000, 1L)
+        );
+
+        when(transactionService.getStatement(request)).thenReturn(statement);
+
+        ResponseEntity<List<StatementResponse>> response = transactionController.getStatement(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertEquals(1300, response.getBody().get(0).getClosingBalance());
+        assertEquals(1300, response.getBody().get(1).getOpeningBalance());
+
+        verify(transactionService).getStatement(request);
+    }
+
     @Test
     void getReportsBetweenDates() {
     }
@@ -0,0 +1,128 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.services.BalanceLedger;
+import com.lucas.transactions_service.services.LedgerShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the shard statements against the migrated schema, and that a balance moved into the shards
+ * can still be spent once the account is taken out of the sharding configuration.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class AccountBalanceShardRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final Long ACCOUNT = 42L;
+
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final LedgerShardingProperties ledgerShardingProperties = new LedgerShardingProperties();
+    private final AccountResponse account = new AccountResponse(ACCOUNT, "Ahorros", 1000.0, true, null);
+
+    private BalanceLedger balanceLedger;
+
+    @BeforeEach
+    void setUp() {
+        ledgerShardingProperties.setShards(4);
+        balanceLedger = new BalanceLedger(accountBalanceRepository, accountBalanceShardRepository,
+                transactionRepository, ledgerShardingProperties);
+        accountBalanceRepository.insertIfAbsent(ACCOUNT, 1000);
+    }
+
+    @Test
+    void insertMissingCreatesEachShardOnce() {
+        assertEquals(4, accountBalanceShardRepository.insertMissing(ACCOUNT, 4));
+        assertEquals(2, accountBalanceShardRepository.insertMissing(ACCOUNT, 6));
+
+        assertEquals(List.of(0, 0, 0, 0, 0, 0), accountBalanceShardRepository.lockBalances(ACCOUNT));
+    }
+
+    @Test
+    void spreadSplitsTheTotalAndEmptiesShardsBeyondTheCount() {
+        accountBalanceShardRepository.insertMissing(ACCOUNT, 6);
+        accountBalanceShardRepository.add(ACCOUNT, 5, 70);
+
+        accountBalanceShardRepository.spread(ACCOUNT, 4, 250, 3);
+
+        assertEquals(List.of(251, 251, 251, 250, 0, 0), accountBalanceShardRepository.lockBalances(ACCOUNT));
+    }
+
+    @Test
+    void addIfSufficientNeverTakesAShardBelowZero() {
+        accountBalanceShardRepository.insertMissing(ACCOUNT, 2);
+        accountBalanceShardRepository.add(ACCOUNT, 0, 100);
+
+        assertEquals(0, accountBalanceShardRepository.addIfSufficient(ACCOUNT, 0, -101));
+        assertEquals(1, accountBalanceShardRepository.addIfSufficient(ACCOUNT, 0, -100));
+        assertEquals(0, accountBalanceShardRepository.addIfSufficient(ACCOUNT, 1, -1));
+
+        assertEquals(List.of(0, 0), accountBalanceShardRepository.lockBalances(ACCOUNT));
+    }
+
+    @Test
+    void lockTotalsSumsTheShardsOfEachAccount() {
+        accountBalanceShardRepository.insertMissing(ACCOUNT, 2);
+        accountBalanceShardRepository.add(ACCOUNT, 0, 100);
+        accountBalanceShardRepository.add(ACCOUNT, 1, 50);
+
+        List<ShardTotal> totals = accountBalanceShardRepository.lockTotals(Set.of(ACCOUNT, 43L));
+
+        assertEquals(1, totals.size());
+        assertEquals(ACCOUNT, totals.getFirst().getAccountNumber());
+        assertEquals(150L, totals.getFirst().getTotal());
+    }
+
+    @Test
+    void rebalancedAccountCanBeDebitedAfterItIsNoLongerSharded() {
+        ledgerShardingProperties.setAccounts(Set.of(ACCOUNT));
+        // No shard holds anything yet, so the debit rebalances the whole balance into the shards.
+        balanceLedger.applyMovement(account, -100);
+        assertEquals(0, accountBalanceRepository.lockBalance(ACCOUNT).orElseThrow());
+
+        ledgerShardingProperties.setAccounts(Set.of());
+
+        assertEquals(300, balanceLedger.applyMovement(account, -600));
+        assertEquals(300, accountBalanceRepository.lockBalance(ACCOUNT).orElseThrow());
+        assertEquals(List.of(0, 0, 0, 0), accountBalanceShardRepository.lockBalances(ACCOUNT));
+    }
+
+    @Test
+    void lockBalancesFoldsShardsOfAccountsNoLongerSharded() {
+        ledgerShardingProperties.setAccounts(Set.of(ACCOUNT));
+        balanceLedger.applyMovement(account, -100);
+        ledgerShardingProperties.setAccounts(Set.of());
+
+        Map<Long, AccountBalance> balances = balanceLedger.lockBalances(Map.of(ACCOUNT, account));
+
+        assertEquals(900, balances.get(ACCOUNT).getBalance());
+        assertEquals(List.of(0, 0, 0, 0), accountBalanceShardRepository.lockBalances(ACCOUNT));
+    }
+}
@@ -0,0 +1,65 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.AccountView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a rebuild snapshot, read before a change event was applied, cannot overwrite the row that
+ * event produced, while rows no newer event reached are still replaced.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class AccountViewRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final Long ACCOUNT = 7L;
+
+    @Autowired
+    private AccountViewRepository accountViewRepository;
+
+    @Test
+    void snapshotDoesNotUndoAnEventAppliedSinceTheRebuildStarted() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        accountViewRepository.applyChange(ACCOUNT, 3L, true, false, 10L, startedAt.minusMinutes(1));
+        Long lastSequence = accountViewRepository.findLastSequence();
+
+        // The account moves to another client while the snapshot page holding the old one is in flight.
+        accountViewRepository.applyChange(ACCOUNT, 4L, false, false, 11L, startedAt.plusSeconds(1));
+
+        assertEquals(0, accountViewRepository.applySnapshot(ACCOUNT, 3L, true, lastSequence, startedAt));
+
+        AccountView view = accountViewRepository.findById(ACCOUNT).orElseThrow();
+        assertEquals(4L, view.getClientId());
+        assertFalse(view.getStatus());
+        assertEquals(11L, view.getSequence());
+    }
+
+    @Test
+    void snapshotReplacesRowsNoNewerEventReachedAndKeepsTheirSequence() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        accountViewRepository.applyChange(ACCOUNT, 3L, true, true, 10L, startedAt.minusMinutes(1));
+        Long lastSequence = accountViewRepository.findLastSequence();
+
+        assertEquals(1, accountViewRepository.applySnapshot(ACCOUNT, 5L, true, lastSequence, startedAt));
+
+        AccountView view = accountViewRepository.findById(ACCOUNT).orElseThrow();
+        assertEquals(5L, view.getClientId());
+        assertFalse(view.getDeleted());
+        assertEquals(10L, view.getSequence());
+    }
+}
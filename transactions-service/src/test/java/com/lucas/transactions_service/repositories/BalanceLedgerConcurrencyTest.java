@@ -0,0 +1,181 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.services.BalanceLedger;
+import com.lucas.transactions_service.services.LedgerShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs concurrent debits in separate transactions against the real balance and shard tables. Batches
+ * lock pairs of accounts in every combination, including ones whose balance rows do not exist yet and
+ * one whose balance sits in shards that single movements keep debiting meanwhile. Every transaction
+ * has to finish without a deadlock, no account may go below zero and every accepted debit has to show
+ * in the final balance.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceLedgerConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final Long FIRST = 101L;
+    private static final Long SECOND = 102L;
+    private static final Long SHARDED = 103L;
+    private static final int OPENING_BALANCE = 1000;
+    private static final int DEBIT = 100;
+    private static final int WORKERS = 8;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LedgerShardingProperties ledgerShardingProperties = new LedgerShardingProperties();
+    private final Map<Long, AtomicInteger> accepted = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private BalanceLedger balanceLedger;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        ledgerShardingProperties.setAccounts(Set.of(SHARDED));
+        ledgerShardingProperties.setShards(4);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        balanceLedger = new BalanceLedger(accountBalanceRepository, accountBalanceShardRepository,
+                transactionRepository, ledgerShardingProperties);
+        executor = Executors.newFixedThreadPool(WORKERS);
+
+        // FIRST and SECOND have no balance row yet; SHARDED holds its whole balance in the shards.
+        transactionTemplate.executeWithoutResult(status -> {
+            accountBalanceRepository.insertIfAbsent(SHARDED, 0);
+            accountBalanceShardRepository.insertMissing(SHARDED, 4);
+            accountBalanceShardRepository.spread(SHARDED, 4, OPENING_BALANCE / 4, 0);
+        });
+        List.of(FIRST, SECOND, SHARDED).forEach(accountNumber -> accepted.put(accountNumber, new AtomicInteger()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        accountBalanceShardRepository.deleteAll();
+        accountBalanceRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDebitsNeitherOverdrawNorLoseUpdates() throws Exception {
+        List<List<Long>> pairs = List.of(List.of(FIRST, SECOND), List.of(SECOND, SHARDED), List.of(SHARDED, FIRST));
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+
+        for (int worker = 0; worker < WORKERS; worker++) {
+            List<Long> pair = pairs.get(worker % pairs.size());
+            boolean singleMovements = worker % 4 == 3;
+            workers.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                for (int round = 0; round < ROUNDS; round++) {
+                    if (singleMovements) {
+                        debitSharded();
+                    } else {
+                        debitBatch(pair);
+                    }
+                }
+            }, executor));
+        }
+        start.countDown();
+
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        for (Long accountNumber : List.of(FIRST, SECOND, SHARDED)) {
+            int balance = accountBalanceRepository.findBalance(accountNumber).orElseThrow();
+            assertTrue(balance >= 0, "Account " + accountNumber + " was overdrawn to " + balance);
+            assertEquals(OPENING_BALANCE - DEBIT * accepted.get(accountNumber).get(), balance,
+                    "Account " + accountNumber + " lost an update");
+        }
+        // Demand far exceeds every balance, so each account has to end up fully spent.
+        assertEquals(0, accountBalanceRepository.findBalance(FIRST).orElseThrow());
+        assertEquals(0, accountBalanceRepository.findBalance(SECOND).orElseThrow());
+        assertEquals(0, accountBalanceRepository.findBalance(SHARDED).orElseThrow());
+    }
+
+    // Mirrors a batch chunk: every balance is locked up front and debited only where it covers it.
+    private void debitBatch(List<Long> accountNumbers) {
+        Map<Long, Integer> debited = transactionTemplate.execute(status -> {
+            Map<Long, AccountResponse> accounts = new HashMap<>();
+            accountNumbers.forEach(accountNumber -> accounts.put(accountNumber, account(accountNumber)));
+
+            Map<Long, Integer> applied = new HashMap<>();
+            balanceLedger.lockBalances(accounts).forEach((accountNumber, balance) -> {
+                if (balance.getBalance() >= DEBIT) {
+                    balance.setBalance(balance.getBalance() - DEBIT);
+                    applied.put(accountNumber, DEBIT);
+                }
+            });
+            return applied;
+        });
+        debited.keySet().forEach(accountNumber -> accepted.get(accountNumber).incrementAndGet());
+    }
+
+    private void debitSharded() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> balanceLedger.applyMovement(account(SHARDED), -DEBIT));
+            accepted.get(SHARDED).incrementAndGet();
+        } catch (InsufficientBalanceException e) {
+            // Refused debits must leave the balance untouched, which the final totals check.
+        }
+    }
+
+    private static AccountResponse account(Long accountNumber) {
+        return new AccountResponse(accountNumber, "Ahorros", (double) OPENING_BALANCE, true, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
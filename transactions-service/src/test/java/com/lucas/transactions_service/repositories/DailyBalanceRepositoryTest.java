@@ -0,0 +1,99 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.DailyBalanceId;
+import com.lucas.transactions_service.model.entities.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the snapshot maintenance queries against the migrated schema: rows written incrementally
+ * must match what a full rebuild produces.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class DailyBalanceRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final Long ACCOUNT = 42L;
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+    private static final LocalDate WEDNESDAY = MONDAY.plusDays(2);
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Opening balance 1000, +200 on Monday, -50 on Wednesday.
+        accountBalanceRepository.saveAndFlush(new AccountBalance(ACCOUNT, 1150, null));
+        transactionRepository.save(movement(MONDAY, 200));
+        transactionRepository.save(movement(WEDNESDAY, -50));
+        transactionRepository.flush();
+        dailyBalanceRepository.rebuild(ACCOUNT, LocalDate.now());
+    }
+
+    @Test
+    void rebuildStoresClosingBalancePerDayWithMovements() {
+        assertEquals(1200L, closing(MONDAY));
+        assertEquals(1150L, closing(WEDNESDAY));
+        assertFalse(dailyBalanceRepository.existsById(new DailyBalanceId(ACCOUNT, TUESDAY)));
+    }
+
+    @Test
+    void backdatedMovementShiftsLaterDaysAndAddsItsOwnDay() {
+        transactionRepository.saveAndFlush(movement(TUESDAY, 30));
+        accountBalanceRepository.adjust(ACCOUNT, 30);
+
+        dailyBalanceRepository.shift(ACCOUNT, TUESDAY, 30);
+        dailyBalanceRepository.insertIfAbsent(ACCOUNT, TUESDAY);
+
+        assertEquals(1200L, closing(MONDAY));
+        assertEquals(1230L, closing(TUESDAY));
+        assertEquals(1180L, closing(WEDNESDAY));
+    }
+
+    @Test
+    void insertIfAbsentFallsBackToLedgerWhenThereAreNoSnapshots() {
+        dailyBalanceRepository.deleteByAccount(ACCOUNT);
+
+        dailyBalanceRepository.insertIfAbsent(ACCOUNT, MONDAY);
+
+        assertEquals(1200L, closing(MONDAY));
+    }
+
+    private long closing(LocalDate day) {
+        return dailyBalanceRepository.findById(new DailyBalanceId(ACCOUNT, day)).orElseThrow().getClosingBalance();
+    }
+
+    private Transaction movement(LocalDate date, int amount) {
+        return Transaction.builder()
+                .date(date)
+                .accountNumber(ACCOUNT)
+                .type("Ahorros")
+                .state(true)
+                .transactionAmount(amount)
+                .build();
+    }
+}
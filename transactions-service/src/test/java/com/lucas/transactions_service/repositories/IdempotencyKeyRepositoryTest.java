@@ -0,0 +1,129 @@
+package com.lucas.transactions_service.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.services.IdempotencyProperties;
+import com.lucas.transactions_service.services.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races two claims of the same key in separate transactions against Postgres. The second
+ * {@code INSERT ... ON CONFLICT DO NOTHING} has to wait on the first transaction and then either see the
+ * movement it created or, if it rolled back, take the key itself.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyKeyRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final String KEY = "key-1";
+    private static final String HASH = "hash-1";
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private IdempotencyService idempotencyService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, new IdempotencyProperties(),
+                transactionTemplate, new ObjectMapper());
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentClaimWaitsForTheFirstAndSeesItsMovement() throws Exception {
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Optional<Long> result = idempotencyService.claim(KEY, HASH);
+            claimed.countDown();
+            await(release);
+            idempotencyService.complete(KEY, 42L);
+            return result;
+        }), executor);
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Optional<Long>> second = CompletableFuture.supplyAsync(
+                () -> transactionTemplate.execute(status -> idempotencyService.claim(KEY, HASH)), executor);
+
+        assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals(Optional.empty(), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Optional.of(42L), second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void concurrentClaimTakesTheKeyWhenTheFirstRollsBack() throws Exception {
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            idempotencyService.claim(KEY, HASH);
+            claimed.countDown();
+            await(release);
+            status.setRollbackOnly();
+        }), executor);
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Optional<Long>> second = CompletableFuture.supplyAsync(
+                () -> transactionTemplate.execute(status -> idempotencyService.claim(KEY, HASH)), executor);
+
+        assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        assertEquals(Optional.empty(), second.get(10, TimeUnit.SECONDS));
+        assertTrue(idempotencyKeyRepository.findById(KEY).isPresent());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.lucas.transactions_service.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN for the SQL Hibernate generates for the report queries, against the migrated schema.
+ * Sequential scans are disabled so the planner picks an index whenever one is usable, which makes the
+ * plan independent of table size. The queries checked have no ORDER BY, so no other index can win by
+ * saving a sort.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.lucas.transactions_service.repositories.TransactionRepositoryIndexTest$SqlCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionRepositoryIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void reportBetweenDatesUsesDateIndex() {
+        transactionRepository.findByDateBetween(START, END);
+
+        String plan = explain(lastSelect(), literal(START), literal(END));
+
+        assertTrue(plan.contains("idx_movement_date"), plan);
+    }
+
+    @Test
+    void accountMovementsBetweenDatesUseAccountDateIndex() {
+        transactionRepository.sumAmountsBetween(1L, START, END);
+
+        String plan = explain(lastSelect(), "1", literal(START), literal(END));
+
+        assertTrue(plan.contains("idx_movement_account_number_date"), plan);
+    }
+
+    private static String lastSelect() {
+        return SqlCapture.STATEMENTS.reversed().stream()
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query was sent: " + SqlCapture.STATEMENTS));
+    }
+
+    private static String literal(LocalDate date) {
+        return "DATE '" + date + "'";
+    }
+
+    // Binds the parameters in the order they appear, as the generated SQL only has positional markers.
+    @SuppressWarnings("unchecked")
+    private String explain(String sql, String... parameters) {
+        StringBuilder bound = new StringBuilder(sql);
+        for (String parameter : parameters) {
+            int marker = bound.indexOf("?");
+            assertTrue(marker >= 0, "More parameters than markers in: " + sql);
+            bound.replace(marker, marker + 1, parameter);
+        }
+        assertEquals(-1, bound.indexOf("?"), "Unbound parameter in: " + bound);
+
+        List<String> lines = entityManager.createNativeQuery("EXPLAIN " + bound).getResultList();
+        return String.join("\n", lines);
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
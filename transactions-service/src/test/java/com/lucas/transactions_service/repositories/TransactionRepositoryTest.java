@@ -0,0 +1,105 @@
+package com.lucas.transactions_service.repositories;
+
+import com.lucas.transactions_service.model.dtos.StatementPeriod;
+import com.lucas.transactions_service.model.entities.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the statement aggregation against Postgres: period buckets and the credits, debits and
+ * movement count summed into each of them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 2, 29);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // The two February movements of account 1 share a day.
+        transactionRepository.save(movement(1L, LocalDate.of(2024, 1, 10), 1000, 500));
+        transactionRepository.save(movement(1L, LocalDate.of(2024, 1, 20), 1500, -200));
+        transactionRepository.save(movement(1L, LocalDate.of(2024, 2, 5), 1300, 100));
+        transactionRepository.save(movement(1L, LocalDate.of(2024, 2, 5), 1400, -50));
+        transactionRepository.save(movement(1L, LocalDate.of(2024, 3, 1), 1350, 10));
+        transactionRepository.save(movement(2L, LocalDate.of(2024, 1, 15), 0, 300));
+        transactionRepository.flush();
+    }
+
+    @Test
+    void monthlyStatementHasOneRowPerMonth() {
+        List<StatementLine> lines = transactionRepository.summarizeByPeriod(1L, START, END, StatementPeriod.MONTHLY.getUnit());
+
+        assertEquals(2, lines.size());
+        assertLine(lines.get(0), 1L, START, 500, -200, 2);
+        assertLine(lines.get(1), 1L, LocalDate.of(2024, 2, 1), 100, -50, 2);
+    }
+
+    @Test
+    void dailyStatementSumsMovementsOfTheSameDay() {
+        List<StatementLine> lines = transactionRepository.summarizeByPeriod(1L, START, END, StatementPeriod.DAILY.getUnit());
+
+        assertEquals(3, lines.size());
+        assertLine(lines.get(2), 1L, LocalDate.of(2024, 2, 5), 100, -50, 2);
+    }
+
+    @Test
+    void rangeStatementCollapsesTheIntervalIntoOneRowStartingAtStartDate() {
+        List<StatementLine> lines = transactionRepository.summarizeByPeriod(1L, START, END, StatementPeriod.RANGE.getUnit());
+
+        assertEquals(1, lines.size());
+        assertLine(lines.getFirst(), 1L, START, 600, -250, 4);
+    }
+
+    @Test
+    void statementWithoutAccountCoversEveryAccount() {
+        List<StatementLine> lines = transactionRepository.summarizeByPeriod(null, START, END, StatementPeriod.RANGE.getUnit());
+
+        assertEquals(2, lines.size());
+        assertEquals(1L, lines.get(0).getAccountNumber());
+        assertLine(lines.get(1), 2L, START, 300, 0, 1);
+    }
+
+    private static void assertLine(StatementLine line, Long accountNumber, LocalDate periodStart,
+                                   long credits, long debits, long movements) {
+        assertEquals(accountNumber, line.getAccountNumber());
+        assertEquals(periodStart, line.getPeriodStart());
+        assertEquals(credits, line.getTotalCredits());
+        assertEquals(debits, line.getTotalDebits());
+        assertEquals(movements, line.getMovements());
+    }
+
+    private Transaction movement(Long accountNumber, LocalDate date, int initialBalance, int amount) {
+        return Transaction.builder()
+                .date(date)
+                .accountNumber(accountNumber)
+                .type("Ahorros")
+                .state(true)
+                .initialbalance(initialBalance)
+                .transactionAmount(amount)
+                .availableBalance(initialBalance + amount)
+                .build();
+    }
+}
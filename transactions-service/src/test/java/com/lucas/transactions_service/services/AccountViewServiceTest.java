@@ -0,0 +1,116 @@
+package com.lucas.transactions_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.account.AccountLookup;
+import com.lucas.transactions_service.account.AccountTransaction;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.ChangeEvent;
+import com.lucas.transactions_service.model.dtos.ClientResponse;
+import com.lucas.transactions_service.model.dtos.CursorPage;
+import com.lucas.transactions_service.repositories.AccountViewRepository;
+import com.lucas.transactions_service.repositories.ClientViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountViewServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AccountViewRepository accountViewRepository;
+    private ClientViewRepository clientViewRepository;
+    private AccountTransaction accountTransaction;
+    private AccountLookup accountLookup;
+
+    private AccountViewService accountViewService;
+
+    @BeforeEach
+    void setUp() {
+        accountViewRepository = mock(AccountViewRepository.class);
+        clientViewRepository = mock(ClientViewRepository.class);
+        accountTransaction = mock(AccountTransaction.class);
+        accountLookup = mock(AccountLookup.class);
+        accountViewService = new AccountViewService(accountViewRepository, clientViewRepository, accountTransaction,
+                accountLookup, new TransactionTemplate(mock(PlatformTransactionManager.class)), new ReadModelProperties());
+    }
+
+    @Test
+    void testApplyAccountEventUpdatesProjectionAndEvictsCache() {
+        ChangeEvent event = ChangeEvent.builder()
+                .sequence(12L)
+                .aggregateType(ChangeEvent.ACCOUNT)
+                .aggregateId(7L)
+                .type(ChangeEvent.UPSERTED)
+                .payload(objectMapper.createObjectNode().put("clientId", 3L).put("status", true))
+                .build();
+
+        accountViewService.apply(List.of(event));
+
+        verify(accountViewRepository).applyChange(eq(7L), eq(3L), eq(true), eq(false), eq(12L), any());
+        verify(accountLookup).evict(7L);
+    }
+
+    @Test
+    void testApplyClientEventEvictsAccountsOfClient() {
+        when(accountViewRepository.findAccountNumbersByClientId(3L)).thenReturn(List.of(7L, 8L));
+        ChangeEvent event = ChangeEvent.builder()
+                .sequence(4L)
+                .aggregateType(ChangeEvent.CLIENT)
+                .aggregateId(3L)
+                .type(ChangeEvent.UPSERTED)
+                .payload(objectMapper.createObjectNode().put("name", "Juan Perez"))
+                .build();
+
+        accountViewService.apply(List.of(event));
+
+        verify(clientViewRepository).applyChange(eq(3L), eq("Juan Perez"), eq(false), eq(4L), any());
+        verify(accountLookup).evict(List.of(7L, 8L));
+    }
+
+    @Test
+    void testApplyRejectsEventsWithoutSequence() {
+        ChangeEvent event = ChangeEvent.builder().aggregateType(ChangeEvent.ACCOUNT).aggregateId(7L).build();
+
+        assertThrows(IllegalArgumentException.class, () -> accountViewService.apply(List.of(event)));
+    }
+
+    @Test
+    void testRebuildFollowsSnapshotCursor() {
+        when(accountViewRepository.findLastSequence()).thenReturn(12L);
+        when(clientViewRepository.findLastSequence()).thenReturn(5L);
+        when(accountTransaction.getAccounts(null, 500)).thenReturn(ResponseEntity.ok()
+                .header(CursorPage.NEXT_CURSOR_HEADER, "Bw")
+                .body(List.of(account(7L, 3L, "Juan"))));
+        when(accountTransaction.getAccounts("Bw", 500)).thenReturn(ResponseEntity.ok(List.of(account(8L, 4L, "Mario"))));
+
+        int synced = accountViewService.rebuild();
+
+        assertEquals(2, synced);
+        verify(accountViewRepository).applySnapshot(eq(8L), eq(4L), eq(true), eq(12L), any());
+        verify(clientViewRepository).applySnapshot(eq(3L), eq("Juan"), eq(5L), any());
+        verify(accountViewRepository).deleteNotSyncedSince(any());
+        verify(accountLookup).evictAll();
+    }
+
+    @Test
+    void testFindClientNamesSkipsQueryForEmptySet() {
+        Map<Long, String> names = accountViewService.findClientNames(Set.of());
+
+        assertTrue(names.isEmpty());
+        verifyNoInteractions(accountViewRepository);
+    }
+
+    private AccountResponse account(Long accountNumber, Long clientId, String clientName) {
+        ClientResponse client = ClientResponse.builder().id(clientId).name(clientName).build();
+        return new AccountResponse(accountNumber, "Ahorros", 1000.0, true, client);
+    }
+}
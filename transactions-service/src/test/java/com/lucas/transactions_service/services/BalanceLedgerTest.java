@@ -0,0 +1,218 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountBalanceRepository;
+import com.lucas.transactions_service.repositories.AccountBalanceShardRepository;
+import com.lucas.transactions_service.repositories.ShardTotal;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BalanceLedgerTest {
+
+    private AccountBalanceRepository accountBalanceRepository;
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+    private TransactionRepository transactionRepository;
+    private LedgerShardingProperties ledgerShardingProperties;
+
+    private BalanceLedger balanceLedger;
+
+    private final AccountResponse account = new AccountResponse(7L, "Ahorros", 1000.0, true, null);
+
+    @BeforeEach
+    void setUp() {
+        accountBalanceRepository = mock(AccountBalanceRepository.class);
+        accountBalanceShardRepository = mock(AccountBalanceShardRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        ledgerShardingProperties = new LedgerShardingProperties();
+        balanceLedger = new BalanceLedger(accountBalanceRepository, accountBalanceShardRepository,
+                transactionRepository, ledgerShardingProperties);
+    }
+
+    @Test
+    void testApplyMovementReturnsUpdatedBalance() {
+        when(accountBalanceRepository.applyIfSufficient(7L, -200)).thenReturn(1);
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(800));
+
+        assertEquals(800, balanceLedger.applyMovement(account, -200));
+        verify(accountBalanceRepository, never()).insertIfAbsent(anyLong(), anyInt());
+    }
+
+    @Test
+    void testApplyMovementSeedsLedgerFromInitialBalance() {
+        when(accountBalanceRepository.applyIfSufficient(7L, 500)).thenReturn(0, 1);
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(7L)).thenReturn(Optional.empty());
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(1500));
+
+        assertEquals(1500, balanceLedger.applyMovement(account, 500));
+        verify(accountBalanceRepository).insertIfAbsent(7L, 1000);
+    }
+
+    @Test
+    void testApplyMovementSeedsLedgerFromLastMovement() {
+        Transaction last = Transaction.builder().accountNumber(7L).availableBalance(300).build();
+        when(accountBalanceRepository.applyIfSufficient(7L, 100)).thenReturn(0, 1);
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(7L)).thenReturn(Optional.of(last));
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(400));
+
+        assertEquals(400, balanceLedger.applyMovement(account, 100));
+        verify(accountBalanceRepository).insertIfAbsent(7L, 300);
+    }
+
+    @Test
+    void testApplyMovementThrowsWhenBalanceIsInsufficient() {
+        when(accountBalanceRepository.applyIfSufficient(7L, -5000)).thenReturn(0);
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(7L)).thenReturn(Optional.empty());
+
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> balanceLedger.applyMovement(account, -5000));
+
+        assertEquals("Saldo no disponible", exception.getMessage());
+        verify(accountBalanceRepository, never()).findBalance(anyLong());
+    }
+
+    @Test
+    void testShardedCreditUpdatesOneShardOnly() {
+        ledgerShardingProperties.setAccounts(Set.of(7L));
+        when(accountBalanceShardRepository.add(eq(7L), anyInt(), eq(500))).thenReturn(1);
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(1500));
+
+        assertEquals(1500, balanceLedger.applyMovement(account, 500));
+        verify(accountBalanceShardRepository).add(eq(7L), anyInt(), eq(500));
+        verify(accountBalanceRepository, never()).applyIfSufficient(anyLong(), anyInt());
+        verify(accountBalanceRepository, never()).lockBalance(anyLong());
+    }
+
+    @Test
+    void testReverseMovementRefusesToOverdrawTheAccount() {
+        when(accountBalanceRepository.applyIfSufficient(7L, -1000)).thenReturn(0);
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(7L)).thenReturn(Optional.empty());
+
+        assertThrows(InsufficientBalanceException.class, () -> balanceLedger.reverseMovement(7L, 1000));
+        verify(accountBalanceRepository, never()).adjust(anyLong(), anyInt());
+    }
+
+    @Test
+    void testReverseMovementOfDebitCreditsTheAccount() {
+        when(accountBalanceRepository.applyIfSufficient(7L, 300)).thenReturn(1);
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(1300));
+
+        assertEquals(1300, balanceLedger.reverseMovement(7L, -300));
+    }
+
+    @Test
+    void testLockAccountsLocksInAccountNumberOrder() {
+        when(accountBalanceRepository.findExistingAccountNumbers(Set.of(7L, 9L))).thenReturn(List.of(9L, 7L));
+        when(accountBalanceRepository.lockBalance(anyLong())).thenReturn(Optional.of(0));
+
+        balanceLedger.lockAccounts(9L, account);
+
+        var inOrder = inOrder(accountBalanceRepository);
+        inOrder.verify(accountBalanceRepository).lockBalance(7L);
+        inOrder.verify(accountBalanceRepository).lockBalance(9L);
+        verify(accountBalanceRepository, never()).insertIfAbsent(anyLong(), anyInt());
+    }
+
+    @Test
+    void testLockAccountsSeedsMissingBalanceBeforeLockingAny() {
+        when(accountBalanceRepository.findExistingAccountNumbers(Set.of(7L, 9L))).thenReturn(List.of(7L));
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(9L)).thenReturn(Optional.empty());
+        when(accountBalanceRepository.lockBalance(anyLong())).thenReturn(Optional.of(0));
+
+        balanceLedger.lockAccounts(9L, account);
+
+        var inOrder = inOrder(accountBalanceRepository);
+        inOrder.verify(accountBalanceRepository).insertIfAbsent(9L, 0);
+        inOrder.verify(accountBalanceRepository).lockBalance(7L);
+        inOrder.verify(accountBalanceRepository).lockBalance(9L);
+        verify(accountBalanceRepository, never()).insertIfAbsent(eq(7L), anyInt());
+    }
+
+    @Test
+    void testShardedDebitRebalancesWhenNoShardCoversIt() {
+        ledgerShardingProperties.setAccounts(Set.of(7L));
+        ledgerShardingProperties.setShards(2);
+        when(accountBalanceShardRepository.addIfSufficient(eq(7L), anyInt(), eq(-300))).thenReturn(0);
+        when(accountBalanceRepository.lockBalance(7L)).thenReturn(Optional.of(1000));
+        when(accountBalanceShardRepository.lockBalances(7L)).thenReturn(List.of(100, 101));
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(901));
+
+        assertEquals(901, balanceLedger.applyMovement(account, -300));
+        verify(accountBalanceShardRepository, times(2)).addIfSufficient(eq(7L), anyInt(), eq(-300));
+        verify(accountBalanceRepository).adjust(7L, -1000);
+        verify(accountBalanceShardRepository).spread(7L, 2, 450, 1);
+    }
+
+    @Test
+    void testShardedDebitThrowsWhenTotalIsInsufficient() {
+        ledgerShardingProperties.setAccounts(Set.of(7L));
+        ledgerShardingProperties.setShards(2);
+        when(accountBalanceShardRepository.addIfSufficient(eq(7L), anyInt(), eq(-5000))).thenReturn(0);
+        when(accountBalanceRepository.lockBalance(7L)).thenReturn(Optional.of(1000));
+        when(accountBalanceShardRepository.lockBalances(7L)).thenReturn(List.of(100, 100));
+
+        assertThrows(InsufficientBalanceException.class, () -> balanceLedger.applyMovement(account, -5000));
+        verify(accountBalanceShardRepository, never()).spread(anyLong(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testDebitOfAccountNoLongerShardedFoldsItsShardsBack() {
+        when(accountBalanceRepository.applyIfSufficient(7L, -500)).thenReturn(0, 1);
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(7L)).thenReturn(Optional.empty());
+        when(accountBalanceRepository.lockBalance(7L)).thenReturn(Optional.of(0));
+        when(accountBalanceShardRepository.lockBalances(7L)).thenReturn(List.of(300, 300));
+        when(accountBalanceRepository.findBalance(7L)).thenReturn(Optional.of(100));
+
+        assertEquals(100, balanceLedger.applyMovement(account, -500));
+
+        var inOrder = inOrder(accountBalanceRepository, accountBalanceShardRepository);
+        inOrder.verify(accountBalanceRepository).lockBalance(7L);
+        inOrder.verify(accountBalanceShardRepository).lockBalances(7L);
+        inOrder.verify(accountBalanceShardRepository).spread(7L, 0, 0, 0);
+        inOrder.verify(accountBalanceRepository).adjust(7L, 600);
+    }
+
+    @Test
+    void testLockBalancesFoldsShardsOfAccountsNoLongerSharded() {
+        ShardTotal shardTotal = mock(ShardTotal.class);
+        when(shardTotal.getAccountNumber()).thenReturn(7L);
+        when(shardTotal.getTotal()).thenReturn(600L);
+        when(accountBalanceRepository.findExistingAccountNumbers(Set.of(7L))).thenReturn(List.of(7L));
+        when(accountBalanceRepository.lockAll(Set.of(7L))).thenReturn(List.of(new AccountBalance(7L, 0, 0L)));
+        when(accountBalanceShardRepository.lockTotals(Set.of(7L))).thenReturn(List.of(shardTotal));
+
+        Map<Long, AccountBalance> balances = balanceLedger.lockBalances(Map.of(7L, account));
+
+        assertEquals(600, balances.get(7L).getBalance());
+        verify(accountBalanceShardRepository).spread(7L, 0, 0, 0);
+    }
+
+    @Test
+    void testLockBalancesSeedsMissingBalancesBeforeLockingAllInOnePass() {
+        AccountResponse other = new AccountResponse(9L, "Corriente", 500.0, true, null);
+        when(accountBalanceRepository.findExistingAccountNumbers(Set.of(7L, 9L))).thenReturn(List.of(7L));
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(9L)).thenReturn(Optional.empty());
+        when(accountBalanceRepository.lockAll(Set.of(7L, 9L)))
+                .thenReturn(List.of(new AccountBalance(7L, 1000, 0L), new AccountBalance(9L, 500, 0L)));
+
+        Map<Long, AccountBalance> balances = balanceLedger.lockBalances(Map.of(7L, account, 9L, other));
+
+        assertEquals(Set.of(7L, 9L), balances.keySet());
+        var inOrder = inOrder(accountBalanceRepository);
+        inOrder.verify(accountBalanceRepository).insertIfAbsent(9L, 500);
+        inOrder.verify(accountBalanceRepository).lockAll(Set.of(7L, 9L));
+        verify(accountBalanceRepository, times(1)).lockAll(anyCollection());
+        verify(accountBalanceRepository, never()).insertIfAbsent(eq(7L), anyInt());
+    }
+}
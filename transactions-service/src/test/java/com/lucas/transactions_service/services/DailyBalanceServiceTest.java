@@ -0,0 +1,193 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.ResourceNotFoundException;
+import com.lucas.transactions_service.model.dtos.BalanceRangeRequest;
+import com.lucas.transactions_service.model.dtos.BalanceRequest;
+import com.lucas.transactions_service.model.dtos.BalanceResponse;
+import com.lucas.transactions_service.model.entities.DailyBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountBalanceRepository;
+import com.lucas.transactions_service.repositories.AccountBalanceShardRepository;
+import com.lucas.transactions_service.repositories.DailyBalanceRepository;
+import com.lucas.transactions_service.repositories.DailyTotal;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DailyBalanceServiceTest {
+
+    private static final Long ACCOUNT = 1L;
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 10);
+
+    private DailyBalanceRepository dailyBalanceRepository;
+    private AccountBalanceRepository accountBalanceRepository;
+    private TransactionRepository transactionRepository;
+    private DailyBalanceProperties dailyBalanceProperties;
+    private DailyBalanceService dailyBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        dailyBalanceRepository = mock(DailyBalanceRepository.class);
+        accountBalanceRepository = mock(AccountBalanceRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        dailyBalanceProperties = new DailyBalanceProperties();
+        dailyBalanceService = new DailyBalanceService(dailyBalanceRepository, accountBalanceRepository,
+                mock(AccountBalanceShardRepository.class), transactionRepository, mock(TransactionTemplate.class),
+                dailyBalanceProperties);
+
+        when(dailyBalanceRepository.findFirstByAccountNumberAndDayLessThanEqualOrderByDayDesc(anyLong(), any()))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.findFirstByAccountNumberAndDayGreaterThanOrderByDayAsc(anyLong(), any()))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testBalanceStartsFromThePreviousSnapshot() {
+        LocalDate snapshotDay = DATE.minusDays(3);
+        when(dailyBalanceRepository.findFirstByAccountNumberAndDayLessThanEqualOrderByDayDesc(ACCOUNT, DATE))
+                .thenReturn(Optional.of(new DailyBalance(ACCOUNT, snapshotDay, 1000L)));
+        when(transactionRepository.sumAmountsBetween(ACCOUNT, snapshotDay, DATE)).thenReturn(250L);
+
+        BalanceResponse response = dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, DATE));
+
+        assertEquals(ACCOUNT, response.getAccountNumber());
+        assertEquals(DATE, response.getDate());
+        assertEquals(1250L, response.getBalance());
+        verify(dailyBalanceRepository, never()).findFirstByAccountNumberAndDayGreaterThanOrderByDayAsc(anyLong(), any());
+        verifyNoInteractions(accountBalanceRepository);
+    }
+
+    @Test
+    void testBalanceBeforeTheFirstSnapshotIsTakenBackFromTheNextOne() {
+        LocalDate snapshotDay = DATE.plusDays(5);
+        when(dailyBalanceRepository.findFirstByAccountNumberAndDayGreaterThanOrderByDayAsc(ACCOUNT, DATE))
+                .thenReturn(Optional.of(new DailyBalance(ACCOUNT, snapshotDay, 1000L)));
+        when(transactionRepository.sumAmountsBetween(ACCOUNT, DATE, snapshotDay)).thenReturn(300L);
+
+        BalanceResponse response = dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, DATE));
+
+        assertEquals(700L, response.getBalance());
+        verifyNoInteractions(accountBalanceRepository);
+    }
+
+    @Test
+    void testBalanceWithoutSnapshotsIsTheLedgerMinusLaterMovements() {
+        when(accountBalanceRepository.findBalance(ACCOUNT)).thenReturn(Optional.of(1500));
+        when(transactionRepository.sumAmountsAfter(ACCOUNT, DATE)).thenReturn(200L);
+
+        BalanceResponse response = dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, DATE));
+
+        assertEquals(1300L, response.getBalance());
+        verify(transactionRepository, never()).findFirstByAccountNumberOrderByIdDesc(anyLong());
+    }
+
+    @Test
+    void testBalanceWithoutLedgerRowFallsBackToTheLastMovement() {
+        Transaction last = Transaction.builder().id(9L).accountNumber(ACCOUNT).availableBalance(800).build();
+        when(accountBalanceRepository.findBalance(ACCOUNT)).thenReturn(Optional.empty());
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(ACCOUNT)).thenReturn(Optional.of(last));
+        when(transactionRepository.sumAmountsAfter(ACCOUNT, DATE)).thenReturn(-100L);
+
+        BalanceResponse response = dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, DATE));
+
+        assertEquals(900L, response.getBalance());
+    }
+
+    @Test
+    void testBalanceOfAccountWithoutMovementsThrowsNotFound() {
+        when(accountBalanceRepository.findBalance(ACCOUNT)).thenReturn(Optional.empty());
+        when(transactionRepository.findFirstByAccountNumberOrderByIdDesc(ACCOUNT)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, DATE)));
+
+        assertEquals("No movements found for account 1", exception.getMessage());
+    }
+
+    @Test
+    void testGetBalanceRequiresAccountAndDate() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dailyBalanceService.getBalance(new BalanceRequest(ACCOUNT, null)));
+
+        assertEquals("Account number and date are required", exception.getMessage());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testDailyBalancesAddEachDaysTotalAfterTheStartDate() {
+        LocalDate start = DATE;
+        LocalDate end = DATE.plusDays(3);
+        when(dailyBalanceRepository.findFirstByAccountNumberAndDayLessThanEqualOrderByDayDesc(ACCOUNT, start))
+                .thenReturn(Optional.of(new DailyBalance(ACCOUNT, start.minusDays(1), 1000L)));
+        when(transactionRepository.sumAmountsBetween(ACCOUNT, start.minusDays(1), start)).thenReturn(50L);
+        List<DailyTotal> totals = List.of(total(start.plusDays(1), 100L), total(end, -30L));
+        when(transactionRepository.sumAmountsByDay(ACCOUNT, start, end)).thenReturn(totals);
+
+        List<BalanceResponse> balances = dailyBalanceService.getDailyBalances(new BalanceRangeRequest(ACCOUNT, start, end));
+
+        // The start date's own movements are already in balanceAt(start); the totals only cover later days.
+        assertEquals(4, balances.size());
+        assertEquals(List.of(1050L, 1150L, 1150L, 1120L), balances.stream().map(BalanceResponse::getBalance).toList());
+        assertEquals(List.of(start, start.plusDays(1), start.plusDays(2), end),
+                balances.stream().map(BalanceResponse::getDate).toList());
+        verify(transactionRepository).sumAmountsByDay(ACCOUNT, start, end);
+    }
+
+    @Test
+    void testDailyBalancesOfASingleDay() {
+        when(accountBalanceRepository.findBalance(ACCOUNT)).thenReturn(Optional.of(500));
+        when(transactionRepository.sumAmountsAfter(ACCOUNT, DATE)).thenReturn(0L);
+        when(transactionRepository.sumAmountsByDay(ACCOUNT, DATE, DATE)).thenReturn(List.of());
+
+        List<BalanceResponse> balances = dailyBalanceService.getDailyBalances(new BalanceRangeRequest(ACCOUNT, DATE, DATE));
+
+        assertEquals(1, balances.size());
+        assertEquals(500L, balances.getFirst().getBalance());
+    }
+
+    @Test
+    void testDailyBalancesRequireEveryField() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dailyBalanceService.getDailyBalances(new BalanceRangeRequest(ACCOUNT, DATE, null)));
+
+        assertEquals("Account number, start date and end date are required", exception.getMessage());
+    }
+
+    @Test
+    void testDailyBalancesRejectStartAfterEnd() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dailyBalanceService.getDailyBalances(new BalanceRangeRequest(ACCOUNT, DATE, DATE.minusDays(1))));
+
+        assertEquals("Start date cannot be after end date", exception.getMessage());
+    }
+
+    @Test
+    void testDailyBalancesRejectRangesLongerThanMaxRangeDays() {
+        dailyBalanceProperties.setMaxRangeDays(30);
+        when(transactionRepository.sumAmountsByDay(anyLong(), any(), any())).thenReturn(List.of());
+        when(accountBalanceRepository.findBalance(ACCOUNT)).thenReturn(Optional.of(0));
+
+        assertEquals(30, dailyBalanceService.getDailyBalances(
+                new BalanceRangeRequest(ACCOUNT, DATE, DATE.plusDays(29))).size());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> dailyBalanceService.getDailyBalances(new BalanceRangeRequest(ACCOUNT, DATE, DATE.plusDays(30))));
+
+        assertEquals("Date range cannot exceed 30 days", exception.getMessage());
+    }
+
+    private static DailyTotal total(LocalDate day, long amount) {
+        DailyTotal total = mock(DailyTotal.class);
+        when(total.getDay()).thenReturn(day);
+        when(total.getTotal()).thenReturn(amount);
+        return total;
+    }
+}
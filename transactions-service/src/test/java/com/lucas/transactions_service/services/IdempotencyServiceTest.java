@@ -0,0 +1,114 @@
+package com.lucas.transactions_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.exeptions.IdempotencyConflictException;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.IdempotencyKey;
+import com.lucas.transactions_service.repositories.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyService idempotencyService;
+
+    private final TransactionRequest request = TransactionRequest.builder()
+            .date(LocalDate.of(2024, 3, 4))
+            .accountNumber(7L)
+            .type("Ahorros")
+            .state(true)
+            .transactionAmount(-200)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, new IdempotencyProperties(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void testRememberedKeyIsAnsweredFromMemory() {
+        String hash = idempotencyService.hash(request);
+        idempotencyService.remember("key-1", hash, 99L);
+
+        assertEquals(Optional.of(99L), idempotencyService.findCompleted("key-1", hash));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void testCompletedKeyIsLoadedFromTableOnce() {
+        String hash = idempotencyService.hash(request);
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.of(new IdempotencyKey("key-1", hash, 99L, null)));
+
+        assertEquals(Optional.of(99L), idempotencyService.findCompleted("key-1", hash));
+        assertEquals(Optional.of(99L), idempotencyService.findCompleted("key-1", hash));
+        verify(idempotencyKeyRepository, times(1)).findById("key-1");
+    }
+
+    @Test
+    void testUnknownKeyIsNotCompleted() {
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        assertTrue(idempotencyService.findCompleted("key-1", idempotencyService.hash(request)).isEmpty());
+    }
+
+    @Test
+    void testReusingKeyWithDifferentRequestIsConflict() {
+        idempotencyService.remember("key-1", idempotencyService.hash(request), 99L);
+        TransactionRequest other = TransactionRequest.builder()
+                .date(request.getDate())
+                .accountNumber(7L)
+                .type("Ahorros")
+                .state(true)
+                .transactionAmount(-300)
+                .build();
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.findCompleted("key-1", idempotencyService.hash(other)));
+    }
+
+    @Test
+    void testBalancesSentByTheClientDoNotChangeTheHash() {
+        TransactionRequest retry = TransactionRequest.builder()
+                .date(request.getDate())
+                .accountNumber(7L)
+                .type("Ahorros")
+                .state(true)
+                .transactionAmount(-200)
+                .initialbalance(1000)
+                .availableBalance(800)
+                .build();
+
+        assertEquals(idempotencyService.hash(request), idempotencyService.hash(retry));
+    }
+
+    @Test
+    void testClaimReturnsMovementOfConcurrentRequest() {
+        String hash = idempotencyService.hash(request);
+        when(idempotencyKeyRepository.claim(eq("key-1"), eq(hash), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.of(new IdempotencyKey("key-1", hash, 99L, null)));
+
+        assertEquals(Optional.of(99L), idempotencyService.claim("key-1", hash));
+    }
+
+    @Test
+    void testClaimOfFreeKeyLetsCallerCreateMovement() {
+        String hash = idempotencyService.hash(request);
+        when(idempotencyKeyRepository.claim(eq("key-1"), eq(hash), any())).thenReturn(1);
+
+        assertTrue(idempotencyService.claim("key-1", hash).isEmpty());
+        verify(idempotencyKeyRepository, never()).findById(any());
+    }
+}
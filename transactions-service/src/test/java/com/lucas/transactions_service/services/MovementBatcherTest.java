@@ -0,0 +1,321 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.exeptions.InsufficientBalanceException;
+import com.lucas.transactions_service.exeptions.ServiceUnavailableException;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MovementBatcherTest {
+
+    private TransactionRepository transactionRepository;
+    private BalanceLedger balanceLedger;
+    private DailyBalanceService dailyBalanceService;
+    private MovementBatcher movementBatcher;
+
+    private final AccountResponse account = new AccountResponse(7L, "Ahorros", 1000.0, true, null);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> savedBatchSizes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        balanceLedger = mock(BalanceLedger.class);
+        dailyBalanceService = mock(DailyBalanceService.class);
+        movementBatcher = new MovementBatcher(transactionRepository, balanceLedger, dailyBalanceService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new GroupCommitProperties());
+
+        when(balanceLedger.lockBalances(anyMap())).thenAnswer(invocation -> {
+            Map<Long, AccountBalance> balances = new HashMap<>();
+            balances.put(7L, new AccountBalance(7L, 1000, 0L));
+            return balances;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        movementBatcher.shutdown();
+    }
+
+    @Test
+    void testFlushWritesBatchInOneSaveAndAnswersEachCaller() {
+        assignIds();
+        var first = pending(-300);
+        var second = pending(-500);
+
+        movementBatcher.flush(List.of(first, second));
+
+        assertEquals(1L, first.result().join());
+        assertEquals(2L, second.result().join());
+        verify(balanceLedger, times(1)).lockBalances(anyMap());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(dailyBalanceService, times(1)).recordMovements(anyList());
+    }
+
+    @Test
+    void testFlushRejectsOnlyMovementsTheBalanceCannotCover() {
+        assignIds();
+        var first = pending(-800);
+        var second = pending(-300);
+        var third = pending(100);
+
+        movementBatcher.flush(List.of(first, second, third));
+
+        assertEquals(1L, first.result().join());
+        var rejected = assertThrows(CompletionException.class, () -> second.result().join());
+        assertInstanceOf(InsufficientBalanceException.class, rejected.getCause());
+        assertEquals(2L, third.result().join());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedMovementByMovement() {
+        var first = pending(-100);
+        var second = pending(-200);
+        when(transactionRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("batch failed"))
+                .thenAnswer(invocation -> {
+                    List<Transaction> transactions = invocation.getArgument(0);
+                    transactions.forEach(transaction -> transaction.setId(10L));
+                    return transactions;
+                })
+                .thenThrow(new IllegalStateException("bad row"));
+
+        movementBatcher.flush(List.of(first, second));
+
+        assertEquals(10L, first.result().join());
+        var failed = assertThrows(CompletionException.class, () -> second.result().join());
+        assertEquals("bad row", failed.getCause().getMessage());
+    }
+
+    @Test
+    void testTransientFailureFailsTheWholeBatchWithoutRetrying() {
+        var first = pending(-100);
+        var second = pending(-200);
+        when(transactionRepository.saveAll(anyList())).thenThrow(new QueryTimeoutException("statement timeout"));
+
+        movementBatcher.flush(List.of(first, second));
+
+        for (var pending : List.of(first, second)) {
+            var failed = assertThrows(CompletionException.class, () -> pending.result().join());
+            assertInstanceOf(ServiceUnavailableException.class, failed.getCause());
+        }
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testSubmitReturnsIdOfCommittedMovement() {
+        assignIds();
+        startBatcher(properties(200, Duration.ofMillis(5), 10));
+
+        assertEquals(1L, movementBatcher.submit(account, request(-300)));
+    }
+
+    @Test
+    void testBatchIsFlushedOnceMaxDelayHasPassed() {
+        assignIds();
+        startBatcher(properties(200, Duration.ofMillis(200), 10));
+
+        long start = System.nanoTime();
+        assertEquals(1L, movementBatcher.submit(account, request(-300)));
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+        assertEquals(List.of(1), savedBatchSizes);
+    }
+
+    @Test
+    void testFullBatchIsFlushedWithoutWaitingForMaxDelay() throws Exception {
+        assignIds();
+        startBatcher(properties(2, Duration.ofSeconds(30), 10));
+
+        var first = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-300)));
+        var second = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-500)));
+
+        assertEquals(Set.of(1L, 2L), Set.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS)));
+        assertEquals(List.of(2), savedBatchSizes);
+    }
+
+    @Test
+    void testSubmitIsRejectedWhenTheQueueIsFull() throws Exception {
+        assignIds();
+        startBatcher(properties(1, Duration.ZERO, 1));
+        blockWriter();
+
+        var first = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        awaitQueued(1);
+
+        var rejected = assertThrows(ServiceUnavailableException.class, () -> movementBatcher.submit(account, request(-100)));
+        assertEquals("Movement queue is full", rejected.getMessage());
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmitIsRejectedWhenTheWriterIsNotRunning() {
+        var rejected = assertThrows(ServiceUnavailableException.class, () -> movementBatcher.submit(account, request(-100)));
+
+        assertEquals("Movement queue is full", rejected.getMessage());
+    }
+
+    @Test
+    void testQueuedMovementIsDroppedOnceSubmitTimeoutPasses() throws Exception {
+        assignIds();
+        GroupCommitProperties properties = properties(1, Duration.ZERO, 10);
+        properties.setSubmitTimeout(Duration.ofMillis(100));
+        startBatcher(properties);
+        blockWriter();
+
+        var first = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        var timedOut = assertThrows(ServiceUnavailableException.class, () -> movementBatcher.submit(account, request(-100)));
+        assertEquals("Movement was not written in time", timedOut.getMessage());
+        assertEquals(0, meterRegistry.get("movements.group-commit.queued").gauge().value());
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        verify(balanceLedger, after(200).times(1)).lockBalances(anyMap());
+        assertEquals(List.of(1), savedBatchSizes);
+    }
+
+    @Test
+    void testMovementTakenIntoABatchWaitsForItsCommitPastSubmitTimeout() throws Exception {
+        assignIds();
+        GroupCommitProperties properties = properties(1, Duration.ZERO, 10);
+        properties.setSubmitTimeout(Duration.ofMillis(100));
+        startBatcher(properties);
+        blockWriter();
+
+        var submitted = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // Well past the timeout, the caller is still waiting for the batch that holds its movement.
+        Thread.sleep(300);
+        assertFalse(submitted.isDone());
+
+        release.countDown();
+        assertEquals(1L, submitted.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testErrorFailsTheInFlightBatchAndTheWriterKeepsGoing() {
+        assignIds();
+        startBatcher(properties(1, Duration.ZERO, 10));
+        when(balanceLedger.lockBalances(anyMap()))
+                .thenThrow(new LinkageError("broken"))
+                .thenAnswer(invocation -> new HashMap<>(Map.of(7L, new AccountBalance(7L, 1000, 0L))));
+
+        var failed = assertThrows(ServiceUnavailableException.class, () -> movementBatcher.submit(account, request(-100)));
+        assertInstanceOf(LinkageError.class, failed.getCause());
+
+        assertEquals(1L, movementBatcher.submit(account, request(-100)));
+    }
+
+    @Test
+    void testShutdownFailsQueuedCallers() throws Exception {
+        startBatcher(properties(1, Duration.ZERO, 10));
+        blockWriter();
+
+        var first = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.supplyAsync(() -> movementBatcher.submit(account, request(-100)));
+        awaitQueued(1);
+
+        movementBatcher.shutdown();
+
+        var failed = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertEquals("Service is shutting down", failed.getCause().getMessage());
+        // The interrupted flush answers the caller of the batch it was writing instead of leaving it waiting.
+        assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+    }
+
+    private void startBatcher(GroupCommitProperties properties) {
+        movementBatcher = new MovementBatcher(transactionRepository, balanceLedger, dailyBalanceService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+        movementBatcher.bindTo(meterRegistry);
+        movementBatcher.start();
+    }
+
+    private static GroupCommitProperties properties(int maxBatchSize, Duration maxDelay, int queueCapacity) {
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setMaxDelay(maxDelay);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+
+    // The writer stops inside its first flush until the test releases it.
+    private void blockWriter() {
+        when(balanceLedger.lockBalances(anyMap())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new HashMap<>(Map.of(7L, new AccountBalance(7L, 1000, 0L)));
+        });
+    }
+
+    private void awaitQueued(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("movements.group-commit.queued").gauge().value() < size) {
+            assertTrue(System.nanoTime() < deadline, "Movement was never queued");
+            Thread.sleep(10);
+        }
+    }
+
+    private void assignIds() {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            savedBatchSizes.add(transactions.size());
+            long id = 1;
+            for (Transaction transaction : transactions) {
+                transaction.setId(id++);
+            }
+            return transactions;
+        });
+    }
+
+    private MovementBatcher.PendingMovement pending(int amount) {
+        return new MovementBatcher.PendingMovement(account, request(amount), new CompletableFuture<>());
+    }
+
+    private static TransactionRequest request(int amount) {
+        return TransactionRequest.builder()
+                .date(LocalDate.of(2024, 3, 4))
+                .accountNumber(7L)
+                .type("Ahorros")
+                .state(true)
+                .transactionAmount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.lucas.transactions_service.services;
+
+import com.lucas.transactions_service.account.AccountLookup;
+import com.lucas.transactions_service.model.dtos.AccountResponse;
+import com.lucas.transactions_service.model.dtos.TransactionBatchResult;
+import com.lucas.transactions_service.model.dtos.TransactionRequest;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionBatchServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private TransactionRepository transactionRepository;
+    private AccountLookup accountLookup;
+    private BalanceLedger balanceLedger;
+    private DailyBalanceService dailyBalanceService;
+    private EntityManager entityManager;
+    private TransactionBatchService transactionBatchService;
+
+    private final AccountResponse account = new AccountResponse(1L, "Ahorros", 1000.0, true, null);
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        accountLookup = mock(AccountLookup.class);
+        balanceLedger = mock(BalanceLedger.class);
+        dailyBalanceService = mock(DailyBalanceService.class);
+        entityManager = mock(EntityManager.class);
+        transactionBatchService = new TransactionBatchService(transactionRepository, accountLookup, balanceLedger,
+                dailyBalanceService, new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager);
+
+        when(accountLookup.getAccountsByIds(anySet())).thenReturn(Map.of(1L, account));
+        when(balanceLedger.lockBalances(anyMap())).thenAnswer(invocation -> {
+            Map<Long, AccountBalance> balances = new HashMap<>();
+            balances.put(1L, new AccountBalance(1L, 1000, 0L));
+            return balances;
+        });
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(transaction -> transaction.setId(ids.incrementAndGet()));
+            return transactions;
+        });
+    }
+
+    @Test
+    void testAddTransactionsReturnsOneResultPerRow() {
+        List<TransactionRequest> requests = new ArrayList<>();
+        requests.add(request(1L, 500));
+        requests.add(new TransactionRequest(DATE, 1L, "Deposito", null, true, null, null));
+        requests.add(request(2L, 100));
+        requests.add(null);
+
+        List<TransactionBatchResult> results = transactionBatchService.addTransactions(requests);
+
+        assertEquals(4, results.size());
+        assertEquals(TransactionBatchResult.CREATED, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(1500, results.get(0).getAvailableBalance());
+        assertEquals("accountNumber and transactionAmount are required", results.get(1).getMessage());
+        assertEquals("Account not found", results.get(2).getMessage());
+        assertEquals(TransactionBatchResult.REJECTED, results.get(3).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+    }
+
+    @Test
+    void testOverdraftIsRejectedAgainstTheBalanceLeftByEarlierRows() {
+        List<TransactionBatchResult> results = transactionBatchService.addTransactions(List.of(
+                request(1L, -800),
+                request(1L, -300),
+                request(1L, 100),
+                request(1L, -300)
+        ));
+
+        assertEquals(200, results.get(0).getAvailableBalance());
+        assertEquals(TransactionBatchResult.REJECTED, results.get(1).getStatus());
+        assertEquals("Saldo no disponible", results.get(1).getMessage());
+        assertEquals(300, results.get(2).getAvailableBalance());
+        assertEquals(0, results.get(3).getAvailableBalance());
+        assertEquals(3L, results.get(3).getId());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testRowsAreWrittenInChunksThatEachClearThePersistenceContext() {
+        List<TransactionRequest> requests = Collections.nCopies(2001, request(1L, 1));
+
+        List<TransactionBatchResult> results = transactionBatchService.addTransactions(requests);
+
+        assertEquals(2001, results.size());
+        assertTrue(results.stream().allMatch(result -> TransactionBatchResult.CREATED.equals(result.getStatus())));
+        assertEquals(2001L, results.getLast().getId());
+        verify(balanceLedger, times(3)).lockBalances(anyMap());
+        verify(transactionRepository, times(3)).saveAll(anyList());
+        verify(dailyBalanceService, times(3)).recordMovements(anyList());
+        verify(entityManager, times(3)).clear();
+        verify(accountLookup, times(1)).getAccountsByIds(anySet());
+    }
+
+    private TransactionRequest request(Long accountNumber, int amount) {
+        return new TransactionRequest(DATE, accountNumber, "Deposito", null, true, amount, null);
+    }
+}
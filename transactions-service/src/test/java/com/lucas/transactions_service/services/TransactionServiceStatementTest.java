@@ -0,0 +1,129 @@
+package com.lucas.transactions_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucas.transactions_service.account.AccountLookup;
+import com.lucas.transactions_service.model.dtos.StatementPeriod;
+import com.lucas.transactions_service.model.dtos.StatementRequest;
+import com.lucas.transactions_service.model.dtos.StatementResponse;
+import com.lucas.transactions_service.model.entities.AccountBalance;
+import com.lucas.transactions_service.model.entities.Transaction;
+import com.lucas.transactions_service.repositories.AccountBalanceRepository;
+import com.lucas.transactions_service.repositories.AccountBalanceShardRepository;
+import com.lucas.transactions_service.repositories.DailyBalanceRepository;
+import com.lucas.transactions_service.repositories.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Builds statements against Postgres for an account whose movements carry stale balances, as a
+ * backdated movement leaves them: every period must still add up from the balance before it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionServiceStatementTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.2");
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 2, 29);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        DailyBalanceService dailyBalanceService = new DailyBalanceService(dailyBalanceRepository, accountBalanceRepository,
+                accountBalanceShardRepository, transactionRepository, mock(TransactionTemplate.class),
+                new DailyBalanceProperties());
+        transactionService = new TransactionService(transactionRepository, mock(AccountLookup.class),
+                mock(AccountViewService.class), mock(BalanceLedger.class), dailyBalanceService,
+                mock(IdempotencyService.class), mock(MovementBatcher.class), mock(TransactionTemplate.class),
+                new PaginationProperties(), entityManager, new ObjectMapper());
+
+        // Account 1 opened at 1000. The 5 January credit was booked last, so its stored balances are the
+        // ledger's at that time, and the earlier movements' stored balances do not include it.
+        transactionRepository.save(movement(LocalDate.of(2023, 12, 20), 0, 1000));
+        transactionRepository.save(movement(LocalDate.of(2024, 1, 10), 1000, 500));
+        transactionRepository.save(movement(LocalDate.of(2024, 1, 20), 1500, -200));
+        transactionRepository.save(movement(LocalDate.of(2024, 2, 5), 1300, 100));
+        transactionRepository.save(movement(LocalDate.of(2024, 1, 5), 1400, 300));
+        transactionRepository.flush();
+        accountBalanceRepository.saveAndFlush(new AccountBalance(1L, 1700, null));
+    }
+
+    @Test
+    void monthlyStatementAddsUpFromTheBalanceBeforeItsStart() {
+        List<StatementResponse> statement = transactionService.getStatement(
+                new StatementRequest(1L, START, END, StatementPeriod.MONTHLY));
+
+        assertEquals(2, statement.size());
+        assertStatement(statement.get(0), START, 1000, 800, -200, 1600);
+        assertStatement(statement.get(1), LocalDate.of(2024, 2, 1), 1600, 100, 0, 1700);
+    }
+
+    @Test
+    void statementUsesTheDailySnapshotsWhenThereAreSome() {
+        dailyBalanceRepository.rebuild(1L, LocalDate.now());
+
+        List<StatementResponse> statement = transactionService.getStatement(
+                new StatementRequest(1L, LocalDate.of(2024, 1, 15), END, StatementPeriod.RANGE));
+
+        assertEquals(1, statement.size());
+        assertStatement(statement.getFirst(), LocalDate.of(2024, 1, 15), 1800, 100, -200, 1700);
+    }
+
+    private static void assertStatement(StatementResponse line, LocalDate periodStart, int opening,
+                                        long credits, long debits, int closing) {
+        assertEquals(periodStart, line.getPeriodStart());
+        assertEquals(opening, line.getOpeningBalance());
+        assertEquals(credits, line.getTotalCredits());
+        assertEquals(debits, line.getTotalDebits());
+        assertEquals(closing, line.getClosingBalance());
+        assertEquals(line.getOpeningBalance() + line.getTotalCredits() + line.getTotalDebits(),
+                (long) line.getClosingBalance());
+    }
+
+    private Transaction movement(LocalDate date, int initialBalance, int amount) {
+        return Transaction.builder()
+                .date(date)
+                .accountNumber(1L)
+                .type("Ahorros")
+                .state(true)
+                .initialbalance(initialBalance)
+                .transactionAmount(amount)
+                .availableBalance(initialBalance + amount)
+                .build();
+    }
+}
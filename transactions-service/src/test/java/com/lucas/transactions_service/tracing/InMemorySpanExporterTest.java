@@ -0,0 +1,81 @@
+package com.lucas.transactions_service.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySpanExporterTest {
+
+    private InMemorySpanExporter exporter;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemorySpanExporter();
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void testGroupsChildSpansUnderTheirTrace() {
+        Span request = tracer.spanBuilder("GET /api/movimientos/reportes").startSpan();
+        try (Scope ignored = request.makeCurrent()) {
+            tracer.spanBuilder("accounts-service getAccountById").startSpan().end();
+            tracer.spanBuilder("accounts-service getAccountById").startSpan().end();
+        } finally {
+            request.end();
+        }
+        tracer.spanBuilder("unrelated").startSpan().end();
+
+        List<SpanData> trace = exporter.getTrace(request.getSpanContext().getTraceId());
+
+        assertEquals(3, trace.size());
+        assertEquals(2, trace.stream()
+                .filter(span -> span.getParentSpanId().equals(request.getSpanContext().getSpanId()))
+                .count());
+        assertEquals(4, exporter.getFinishedSpans().size());
+    }
+
+    @Test
+    void testKeepsOnlyTheMostRecentSpans() {
+        for (int i = 0; i < InMemorySpanExporter.MAX_SPANS + 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+
+        List<SpanData> spans = exporter.getFinishedSpans();
+
+        assertEquals(InMemorySpanExporter.MAX_SPANS, spans.size());
+        assertEquals("span-5", spans.getFirst().getName());
+
+        exporter.reset();
+        tracer.spanBuilder("after-reset").startSpan().end();
+        assertEquals(1, exporter.getFinishedSpans().size());
+    }
+
+    @Test
+    void testResetDiscardsFinishedSpans() {
+        tracer.spanBuilder("span").startSpan().end();
+
+        exporter.reset();
+
+        assertTrue(exporter.getFinishedSpans().isEmpty());
+    }
+}